@@ -0,0 +1,40 @@
+// Load test of a database bound endpoint, for comparing virtual and platform threads. See README.md
+// Usage: k6 run -e BASE_URL=http://localhost:8080 load-test/get-user.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+export const options = {
+    scenarios: {
+        getUser: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 500),
+            duration: __ENV.DURATION || '1m',
+        },
+    },
+};
+
+export function setup() {
+    const response = http.post(`${BASE_URL}/users`, JSON.stringify({
+        email: `load-test-${Date.now()}@example.com`,
+        password: 'Password9!',
+        displayName: 'Load Test',
+        resourceTokenValidForMillis: 3600000,
+    }), {
+        headers: { 'Content-Type': 'application/vnd.com.naturalprogrammer.signup-request.v1+json' },
+    });
+    check(response, { 'signed up': r => r.status === 201 });
+    const user = response.json();
+    return { id: user.id, token: user.authTokens.resourceToken };
+}
+
+export default function (data) {
+    const response = http.get(`${BASE_URL}/users/${data.id}`, {
+        headers: {
+            Authorization: `Bearer ${data.token}`,
+            Accept: 'application/vnd.com.naturalprogrammer.user.v1+json',
+        },
+    });
+    check(response, { 'got user': r => r.status === 200 });
+}
@@ -0,0 +1,94 @@
+package com.naturalprogrammer.springmvc.common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter of strings.
+ * mightContain never returns false for a string that was put,
+ * but may return true for a string that wasn't, at about the configured rate.
+ */
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+
+    private BloomFilter(long bitSize, int hashFunctions) {
+        this.words = new AtomicLongArray(Math.toIntExact((bitSize + 63) >>> 6));
+        this.bitSize = (long) words.length() << 6;
+        this.hashFunctions = hashFunctions;
+    }
+
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+
+        if (expectedInsertions <= 0)
+            throw new IllegalArgumentException("expectedInsertions must be positive: " + expectedInsertions);
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1)
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1: " + falsePositiveRate);
+
+        var bitSize = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        var hashFunctions = (int) Math.max(1, Math.round((double) bitSize / expectedInsertions * LN2));
+        return new BloomFilter(bitSize, hashFunctions);
+    }
+
+    public void put(String value) {
+        var hash = hash(value);
+        var h1 = hash;
+        var h2 = fmix64(hash ^ 0x9E3779B97F4A7C15L) | 1; // odd, so that the probes don't repeat
+        for (int i = 0; i < hashFunctions; i++) {
+            var bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            var mask = 1L << bit;
+            var index = (int) (bit >>> 6);
+            if ((words.get(index) & mask) == 0)
+                words.accumulateAndGet(index, mask, (word, m) -> word | m);
+        }
+    }
+
+    public boolean mightContain(String value) {
+        var hash = hash(value);
+        var h1 = hash;
+        var h2 = fmix64(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            var bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * Approximate heap bytes held by the bit array
+     */
+    public long footprintBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    private static long hash(String value) {
+        var hash = 0xCBF29CE484222325L; // FNV-1a
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return fmix64(hash);
+    }
+
+    // MurmurHash3 finalizer, spreads the FNV bits over the whole word
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
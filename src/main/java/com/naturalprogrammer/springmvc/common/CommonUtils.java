@@ -1,22 +1,32 @@
 package com.naturalprogrammer.springmvc.common;
 
 import com.naturalprogrammer.springmvc.common.error.Problem;
+import com.naturalprogrammer.springmvc.config.MyProperties;
 import io.jbock.util.Either;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.SneakyThrows;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.io.Serializable;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 
 @Component
 public class CommonUtils {
@@ -24,6 +34,18 @@ public class CommonUtils {
     public static final String X_FORWARDED_FOR = "X-Forwarded-For";
     public static final String CONTENT_TYPE_PREFIX = "application/vnd.com.naturalprogrammer.";
 
+    private static final Pattern IPV4 = Pattern.compile(
+            "((25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)\\.){3}(25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)");
+    private static final Pattern IPV6_GROUP = Pattern.compile("\\p{XDigit}{1,4}");
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public CommonUtils(MyProperties properties) {
+        trustedProxies = properties.clientIp().trustedProxies().stream()
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
     public Optional<Authentication> getAuthentication() {
         return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication());
     }
@@ -34,6 +56,90 @@ public class CommonUtils {
                 .map(UUID::fromString);
     }
 
+    /**
+     * @return the IP of the client of the current request
+     */
+    public Optional<String> getClientIp() {
+        return Optional.ofNullable(RequestContextHolder.getRequestAttributes())
+                .filter(ServletRequestAttributes.class::isInstance)
+                .map(attributes -> ((ServletRequestAttributes) attributes).getRequest())
+                .map(this::getClientIp);
+    }
+
+    /**
+     * @return the remote address, unless it's a trusted proxy, in which case the X-Forwarded-For hops
+     * are walked from the right, past the trusted proxies, to the address the last of them was connected from.
+     * The hops to the left of that are whatever the client sent, and are never used.
+     */
+    public String getClientIp(HttpServletRequest request) {
+
+        var clientIp = request.getRemoteAddr();
+        if (!isTrustedProxy(clientIp))
+            return clientIp;
+
+        var forwardedFor = request.getHeaders(X_FORWARDED_FOR);
+        var hops = new ArrayList<String>();
+        while (forwardedFor.hasMoreElements())
+            for (var hop : StringUtils.split(forwardedFor.nextElement(), ','))
+                if (StringUtils.isNotBlank(hop))
+                    hops.add(hop.trim());
+
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            clientIp = hops.get(i);
+            if (!isTrustedProxy(clientIp))
+                break;
+        }
+        return clientIp;
+    }
+
+    private boolean isTrustedProxy(String ip) {
+
+        // IpAddressMatcher resolves host names, so don't let it see anything but an IP literal
+        if (!isIpLiteral(ip))
+            return false;
+
+        for (var proxy : trustedProxies)
+            if (proxy.matches(ip))
+                return true;
+        return false;
+    }
+
+    /**
+     * @return whether the value is a dotted quad IPv4 address, or an IPv6 one, optionally ending in such a quad.
+     * Host names, even those made only of hex digits and dots like "cafe.bad", are not.
+     */
+    static boolean isIpLiteral(String value) {
+        return IPV4.matcher(value).matches() || isIpv6Literal(value);
+    }
+
+    private static boolean isIpv6Literal(String value) {
+
+        var doubleColon = value.indexOf("::");
+        if (doubleColon >= 0 && value.indexOf("::", doubleColon + 1) >= 0)
+            return false; // at most one "::"
+
+        var parts = doubleColon < 0
+                ? List.of(value)
+                : List.of(value.substring(0, doubleColon), value.substring(doubleColon + 2));
+
+        var groups = 0;
+        for (var i = 0; i < parts.size(); i++) {
+            if (parts.get(i).isEmpty())
+                continue;
+            var fields = parts.get(i).split(":", -1);
+            for (var j = 0; j < fields.length; j++) {
+                var last = i == parts.size() - 1 && j == fields.length - 1;
+                if (last && IPV4.matcher(fields[j]).matches())
+                    groups += 2;
+                else if (IPV6_GROUP.matcher(fields[j]).matches())
+                    groups++;
+                else
+                    return false;
+            }
+        }
+        return doubleColon < 0 ? groups == 8 : groups < 8;
+    }
+
     public static <T> ResponseEntity<?> toResponse(Either<Problem, T> either, Function<T, ResponseEntity<T>> success) {
         return either.fold(Problem::toResponse, success);
     }
@@ -64,6 +170,15 @@ public class CommonUtils {
                 }
     }
 
+    /**
+     * @return a strong ETag, i.e. the quoted SHA-256 digest, of the given content
+     */
+    @SneakyThrows
+    public static String strongEtag(byte[] content) {
+        var digest = MessageDigest.getInstance("SHA-256").digest(content);
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+    }
+
     /**
      * Serializes an object
      */
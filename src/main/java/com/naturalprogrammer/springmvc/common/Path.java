@@ -11,5 +11,6 @@ public final class Path {
     public static final String LOGIN = "/login";
     public static final String FORGOT_PASSWORD = "/forgot-password";
     public static final String RESET_PASSWORD = "/reset-password";
+    public static final String JWKS = "/.well-known/jwks.json";
 
 }
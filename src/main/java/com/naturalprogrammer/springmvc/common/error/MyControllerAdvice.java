@@ -1,8 +1,12 @@
 package com.naturalprogrammer.springmvc.common.error;
 
+import com.naturalprogrammer.springmvc.config.PasswordHashingRejectedException;
+import com.naturalprogrammer.springmvc.user.features.list.UserExportRejectedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
@@ -18,6 +22,9 @@ import static com.naturalprogrammer.springmvc.common.error.Problem.toResponse;
 @RequiredArgsConstructor
 public class MyControllerAdvice {
 
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final String EXPORT_RETRY_AFTER_SECONDS = "60";
+
     private final ObjectFactory<ProblemBuilder> problemBuilder;
 
     @ExceptionHandler(value = HttpMediaTypeNotSupportedException.class)
@@ -36,6 +43,30 @@ public class MyControllerAdvice {
         return toResponse(problem);
     }
 
+    @ExceptionHandler(value = PasswordHashingRejectedException.class)
+    public ResponseEntity<Problem> handleException(PasswordHashingRejectedException ex) {
+
+        var problem = problemBuilder.getObject().build(ProblemType.PASSWORD_HASHING_BUSY, ex.getMessage());
+        log.warn("PasswordHashingRejectedException: %s".formatted(problem));
+        return ResponseEntity
+                .status(problem.status())
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_PROBLEM_JSON_VALUE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(problem);
+    }
+
+    @ExceptionHandler(value = UserExportRejectedException.class)
+    public ResponseEntity<Problem> handleException(UserExportRejectedException ex) {
+
+        var problem = problemBuilder.getObject().build(ProblemType.TOO_MANY_REQUESTS, ex.getMessage());
+        log.warn("UserExportRejectedException: %s".formatted(problem));
+        return ResponseEntity
+                .status(problem.status())
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_PROBLEM_JSON_VALUE)
+                .header(HttpHeaders.RETRY_AFTER, EXPORT_RETRY_AFTER_SECONDS)
+                .body(problem);
+    }
+
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<Problem> handleException(Exception ex) throws Exception {
 
@@ -23,7 +23,9 @@ public enum ProblemType {
     NOT_FOUND("/problems/not-found", "not-found", HttpStatus.NOT_FOUND),
     USER_ALREADY_VERIFIED("/problems/user-already-verified", "user-already-verified", CONFLICT),
     PASSWORD_MISMATCH("/problems/password-mismatch", "password-mismatch", FORBIDDEN),
-    EMAIL_MISMATCH("/problems/email-mismatch", "email-mismatch", FORBIDDEN);
+    EMAIL_MISMATCH("/problems/email-mismatch", "email-mismatch", FORBIDDEN),
+    PASSWORD_HASHING_BUSY("/problems/password-hashing-busy", "password-hashing-busy", SERVICE_UNAVAILABLE),
+    TOO_MANY_REQUESTS("/problems/too-many-requests", "too-many-requests", HttpStatus.TOO_MANY_REQUESTS);
 
     private final String type;
     private final String title;
@@ -1,25 +1,41 @@
 package com.naturalprogrammer.springmvc.common.features.get_context;
 
-import com.naturalprogrammer.springmvc.config.MyProperties;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naturalprogrammer.springmvc.common.jwt.JwsService;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.Clock;
+import java.time.temporal.ChronoUnit;
 
+import static com.naturalprogrammer.springmvc.common.CommonUtils.strongEtag;
+
+/**
+ * Builds and serializes the context once, as it doesn't change while the application runs
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ContextGetter {
 
-    private final MyProperties properties;
+    private final SerializedContext context;
+
+    @SneakyThrows
+    public ContextGetter(JwsService jwsService, ObjectMapper objectMapper, Clock clock) {
+
+        var resource = new ContextResource(jwsService.getKeyRing().getKeys().stream()
+                .map(key -> new ContextResource.KeyResource(
+                        key.id(),
+                        key.algorithm().name(),
+                        key.publicKeyString()
+                )).toList());
+
+        var body = objectMapper.writeValueAsBytes(resource);
+        context = new SerializedContext(body, strongEtag(body), clock.instant().truncatedTo(ChronoUnit.SECONDS));
+        log.info("Serving {} with ETag {}", resource, context.etag());
+    }
 
-    public ContextResource get() {
-        var context = new ContextResource(List.of(new ContextResource.KeyResource(
-                properties.jws().id(),
-                properties.jws().publicKeyString()
-        )));
-        log.info("Got {}", context);
+    public SerializedContext get() {
         return context;
     }
 }
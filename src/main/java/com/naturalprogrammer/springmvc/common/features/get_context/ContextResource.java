@@ -6,7 +6,7 @@ import static com.naturalprogrammer.springmvc.common.CommonUtils.CONTENT_TYPE_PR
 
 public record ContextResource(List<KeyResource> keys) {
 
-    public record KeyResource(String id, String publicKey) {
+    public record KeyResource(String id, String algorithm, String publicKey) {
 
     }
 
@@ -7,14 +7,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import static com.naturalprogrammer.springmvc.common.jwt.JwsKeyRing.KEYS_MAX_AGE;
+
 @RestController
 @RequiredArgsConstructor
 @Tag(name = "Core", description = "Core API")
 public class GetContextController {
 
+    private static final MediaType CONTENT_TYPE = MediaType.parseMediaType(ContextResource.CONTENT_TYPE);
+
     private final ContextGetter contextGetter;
 
     @Operation(summary = "Get context")
@@ -23,11 +30,20 @@ public class GetContextController {
                     content = @Content(
                             mediaType = ContextResource.CONTENT_TYPE,
                             schema = @Schema(implementation = ContextResource.class))
-            )
+            ),
+            @ApiResponse(responseCode = "304", description = "Not modified")
     })
     @GetMapping(value = "/context", produces = ContextResource.CONTENT_TYPE)
-    ContextResource getContext() {
-        return contextGetter.get();
+    ResponseEntity<byte[]> getContext() {
+
+        // ResponseEntity with an ETag answers a matching If-None-Match with a 304
+        var context = contextGetter.get();
+        return ResponseEntity.ok()
+                .contentType(CONTENT_TYPE)
+                .eTag(context.etag())
+                .lastModified(context.lastModified())
+                .cacheControl(CacheControl.maxAge(KEYS_MAX_AGE).cachePublic())
+                .body(context.body());
     }
 
 }
@@ -0,0 +1,9 @@
+package com.naturalprogrammer.springmvc.common.features.get_context;
+
+import java.time.Instant;
+
+/**
+ * The JSON of a {@link ContextResource}, along with its validators for conditional requests
+ */
+public record SerializedContext(byte[] body, String etag, Instant lastModified) {
+}
@@ -0,0 +1,40 @@
+package com.naturalprogrammer.springmvc.common.features.get_jwks;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static com.naturalprogrammer.springmvc.common.Path.JWKS;
+import static com.naturalprogrammer.springmvc.common.jwt.JwsKeyRing.KEYS_MAX_AGE;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Core", description = "Core API")
+public class GetJwksController {
+
+    private final JwksGetter jwksGetter;
+
+    @Operation(summary = "Get the JSON Web Key Set for verifying the JWS tokens")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "JWK set",
+                    content = @Content(mediaType = JwksResource.CONTENT_TYPE)),
+            @ApiResponse(responseCode = "304", description = "Not modified")
+    })
+    @GetMapping(value = JWKS, produces = JwksResource.CONTENT_TYPE)
+    ResponseEntity<byte[]> getJwks() {
+
+        // ResponseEntity with an ETag answers a matching If-None-Match with a 304
+        var jwks = jwksGetter.get();
+        return ResponseEntity.ok()
+                .eTag(jwks.etag())
+                .cacheControl(CacheControl.maxAge(KEYS_MAX_AGE).cachePublic())
+                .body(jwks.body());
+    }
+}
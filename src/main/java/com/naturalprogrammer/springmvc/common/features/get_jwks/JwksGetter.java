@@ -0,0 +1,38 @@
+package com.naturalprogrammer.springmvc.common.features.get_jwks;
+
+import com.naturalprogrammer.springmvc.common.jwt.JwsKey;
+import com.naturalprogrammer.springmvc.common.jwt.JwsService;
+import com.nimbusds.jose.jwk.JWKSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.naturalprogrammer.springmvc.common.CommonUtils.strongEtag;
+
+/**
+ * Serializes the JWK set of the key ring once, as it doesn't change while the application runs
+ */
+@Slf4j
+@Service
+public class JwksGetter {
+
+    private final JwksResource jwks;
+
+    public JwksGetter(JwsService jwsService) {
+
+        var jwkSet = new JWKSet(jwsService.getKeyRing().getKeys().stream()
+                .map(JwsKey::publicJwk)
+                .toList());
+
+        var body = jwkSet.toString(true).getBytes(StandardCharsets.UTF_8);
+        var etag = strongEtag(body);
+
+        jwks = new JwksResource(body, etag);
+        log.info("Serving JWKS with ETag {}", etag);
+    }
+
+    public JwksResource get() {
+        return jwks;
+    }
+}
@@ -0,0 +1,9 @@
+package com.naturalprogrammer.springmvc.common.features.get_jwks;
+
+/**
+ * The serialized JWK set, along with its strong ETag
+ */
+public record JwksResource(byte[] body, String etag) {
+
+    public static final String CONTENT_TYPE = "application/jwk-set+json";
+}
@@ -5,18 +5,24 @@ import com.naturalprogrammer.springmvc.config.MyProperties;
 import com.nimbusds.jose.Payload;
 import com.nimbusds.jwt.JWTClaimsSet;
 import io.jbock.util.Either;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.time.Clock;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Map;
 
-@RequiredArgsConstructor
 public abstract class AbstractJwtService {
 
-	private final Clock clock;
-	private final MyProperties properties;
+	protected final Clock clock;
+	protected final MyProperties properties;
+	private final JwtMetrics metrics;
+
+	protected AbstractJwtService(Clock clock, MyProperties properties, MeterRegistry meterRegistry, String tokenType) {
+		this.clock = clock;
+		this.properties = properties;
+		this.metrics = new JwtMetrics(meterRegistry, tokenType);
+	}
 
 	protected Payload createPayload(String subject, Date validUntil, Map<String, Object> claims) {
 
@@ -42,9 +48,14 @@ public abstract class AbstractJwtService {
 	protected abstract Either<ProblemType, JWTClaimsSet> getClaims(String token);
 
 	public Either<ProblemType, JWTClaimsSet> parseToken(String token) {
-		return getClaims(token)
+
+		var sample = metrics.start();
+		var claims = getClaims(token);
+		var result = claims
 				.flatMap(this::verifyExpiration)
 				.flatMap(this::verifyAudience);
+		metrics.stop(sample, claims, result);
+		return result;
 	}
 
 	private Either<ProblemType, JWTClaimsSet> verifyAudience(JWTClaimsSet claims) {
@@ -10,6 +10,7 @@ import com.nimbusds.jose.crypto.DirectDecrypter;
 import com.nimbusds.jose.crypto.DirectEncrypter;
 import com.nimbusds.jwt.JWTClaimsSet;
 import io.jbock.util.Either;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -27,8 +28,8 @@ public class JweService extends AbstractJwtService {
     private final DirectDecrypter decrypter;
 
     @SneakyThrows
-    public JweService(Clock clock, MyProperties properties) {
-        super(clock, properties);
+    public JweService(Clock clock, MyProperties properties, MeterRegistry meterRegistry) {
+        super(clock, properties, meterRegistry, "jwe");
 
         header = new JWEHeader.Builder(JWEAlgorithm.DIR, EncryptionMethod.A128CBC_HS256)
                 .keyID(properties.jwe().id())
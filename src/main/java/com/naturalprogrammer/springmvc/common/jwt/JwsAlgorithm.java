@@ -0,0 +1,20 @@
+package com.naturalprogrammer.springmvc.common.jwt;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The algorithms supported for signing the JWS tokens.
+ * RS256 is the default. ES256 and EdDSA (Ed25519) sign much faster, with smaller keys and tokens.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum JwsAlgorithm {
+
+    RS256(JWSAlgorithm.RS256),
+    ES256(JWSAlgorithm.ES256),
+    EdDSA(JWSAlgorithm.EdDSA);
+
+    private final JWSAlgorithm jwsAlgorithm;
+}
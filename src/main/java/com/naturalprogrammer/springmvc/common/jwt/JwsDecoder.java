@@ -0,0 +1,51 @@
+package com.naturalprogrammer.springmvc.common.jwt;
+
+import com.nimbusds.jose.JOSEObject;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.JWTClaimsSet;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.MappedJwtClaimSetConverter;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Lets the resource server decode bearer tokens through {@link JwsService},
+ * sharing its JWT processor, claim validation and metrics
+ */
+@RequiredArgsConstructor
+public class JwsDecoder implements JwtDecoder {
+
+    private static final Converter<Map<String, Object>, Map<String, Object>> CLAIM_SET_CONVERTER =
+            MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
+
+    private final JwsService jwsService;
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return jwsService.parseToken(token).fold(
+                problemType -> {
+                    throw new BadJwtException("Couldn't decode the JWT: %s".formatted(problemType));
+                },
+                claims -> toJwt(token, claims)
+        );
+    }
+
+    @SneakyThrows
+    private static Jwt toJwt(String token, JWTClaimsSet claims) {
+
+        var headers = JWSHeader.parse(JOSEObject.split(token)[0]).toJSONObject();
+        var convertedClaims = CLAIM_SET_CONVERTER.convert(claims.getClaims());
+
+        return Jwt.withTokenValue(token)
+                .headers(h -> h.putAll(headers))
+                .claims(c -> c.putAll(convertedClaims))
+                .build();
+    }
+}
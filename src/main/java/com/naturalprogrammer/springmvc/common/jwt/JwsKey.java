@@ -0,0 +1,147 @@
+package com.naturalprogrammer.springmvc.common.jwt;
+
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.*;
+import com.nimbusds.jose.jwk.*;
+import lombok.SneakyThrows;
+import org.springframework.core.io.Resource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * A JWS key pair, along with the algorithm it's used with.
+ * RS256 keys are configured as PEM public and private keys,
+ * whereas ES256 (P-256) and EdDSA (Ed25519) keys are configured as a JWK.
+ * Verification keys hold only the public part.
+ */
+public record JwsKey(String id, JwsAlgorithm algorithm, JWK jwk) {
+
+    // DER prefix of an X.509 SubjectPublicKeyInfo holding a raw Ed25519 public key
+    private static final byte[] ED25519_X509_PREFIX = HexFormat.of().parseHex("302a300506032b6570032100");
+
+    /**
+     * @return the signing key
+     */
+    public static JwsKey of(MyProperties.Jws jws) {
+        return of(jws.id(), jws.algorithm(), jws.publicKey(), jws.privateKey(), jws.jwk(), true);
+    }
+
+    /**
+     * @return a key that can only verify
+     */
+    public static JwsKey of(MyProperties.Jws.VerificationKey key) {
+        return of(key.id(), key.algorithm(), key.publicKey(), null, key.jwk(), false);
+    }
+
+    @SneakyThrows
+    private static JwsKey of(
+            String id,
+            JwsAlgorithm algorithm,
+            RSAPublicKey publicKey,
+            RSAPrivateKey privateKey,
+            Resource jwkResource,
+            boolean signing
+    ) {
+        JWK jwk = switch (algorithm) {
+            case RS256 -> new RSAKey.Builder(publicKey)
+                    .privateKey(privateKey)
+                    .keyID(id)
+                    .build();
+            case ES256 -> new ECKey.Builder(parseJwk(id, algorithm, jwkResource, ECKey.class, Curve.P_256))
+                    .keyID(id)
+                    .build();
+            case EdDSA -> new OctetKeyPair.Builder(parseJwk(id, algorithm, jwkResource, OctetKeyPair.class, Curve.Ed25519))
+                    .keyID(id)
+                    .build();
+        };
+        if (signing && !jwk.isPrivate())
+            throw new IllegalStateException("Signing key %s must have a private key".formatted(id));
+
+        return new JwsKey(id, algorithm, signing ? jwk : jwk.toPublicJWK());
+    }
+
+    private static <K extends JWK & CurveBasedJWK> K parseJwk(
+            String id, JwsAlgorithm algorithm, Resource jwkResource, Class<K> type, Curve curve
+    ) throws Exception {
+
+        if (jwkResource == null)
+            throw new IllegalStateException("A JWK must be configured for the %s key %s".formatted(algorithm, id));
+
+        var jwk = JWK.parse(jwkResource.getContentAsString(StandardCharsets.UTF_8));
+        if (!type.isInstance(jwk) || !curve.equals(type.cast(jwk).getCurve()))
+            throw new IllegalStateException("The JWK of key %s must be a %s key for %s".formatted(id, curve, algorithm));
+
+        return type.cast(jwk);
+    }
+
+    public JWSSigner signer() throws JOSEException {
+        return switch (algorithm) {
+            case RS256 -> new RSASSASigner(jwk.toRSAKey());
+            case ES256 -> new ECDSASigner(jwk.toECKey());
+            case EdDSA -> new Ed25519Signer(jwk.toOctetKeyPair());
+        };
+    }
+
+    public JWK publicJwk() {
+        return jwk.toPublicJWK();
+    }
+
+    public JWSVerifier verifier() throws JOSEException {
+        return switch (algorithm) {
+            case RS256 -> new RSASSAVerifier(jwk.toRSAKey().toPublicJWK());
+            case ES256 -> new ECDSAVerifier(jwk.toECKey().toPublicJWK());
+            case EdDSA -> new Ed25519Verifier(jwk.toOctetKeyPair().toPublicJWK());
+        };
+    }
+
+    /**
+     * @return the public key, as a JCA key. Ed25519 ones are decoded through the JDK's own provider,
+     * because Nimbus can't convert them.
+     */
+    public PublicKey publicKey() throws JOSEException {
+        return switch (algorithm) {
+            case RS256 -> jwk.toRSAKey().toPublicKey();
+            case ES256 -> jwk.toECKey().toPublicKey();
+            case EdDSA -> ed25519JcaPublicKey(jwk.toOctetKeyPair());
+        };
+    }
+
+    private static PublicKey ed25519JcaPublicKey(OctetKeyPair key) throws JOSEException {
+        try {
+            return KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(ed25519PublicKey(key)));
+        } catch (Exception e) {
+            throw new JOSEException("Couldn't decode the Ed25519 key " + key.getKeyID(), e);
+        }
+    }
+
+    /**
+     * @return the Base64 encoded X.509 SubjectPublicKeyInfo of the public key
+     */
+    @SneakyThrows
+    public String publicKeyString() {
+        var encoded = switch (algorithm) {
+            case RS256 -> jwk.toRSAKey().toPublicKey().getEncoded();
+            case ES256 -> jwk.toECKey().toPublicKey().getEncoded();
+            case EdDSA -> ed25519PublicKey(jwk.toOctetKeyPair());
+        };
+        return Base64.getEncoder().encodeToString(encoded);
+    }
+
+    private static byte[] ed25519PublicKey(OctetKeyPair key) {
+        var x = key.getDecodedX();
+        var encoded = new byte[ED25519_X509_PREFIX.length + x.length];
+        System.arraycopy(ED25519_X509_PREFIX, 0, encoded, 0, ED25519_X509_PREFIX.length);
+        System.arraycopy(x, 0, encoded, ED25519_X509_PREFIX.length, x.length);
+        return encoded;
+    }
+}
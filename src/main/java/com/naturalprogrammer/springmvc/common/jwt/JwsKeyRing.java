@@ -0,0 +1,122 @@
+package com.naturalprogrammer.springmvc.common.jwt;
+
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.Getter;
+import lombok.SneakyThrows;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * The active signing key, along with the retired keys still accepted for verification.
+ * Tokens are verified using the key matching their kid, so that keys can be rotated
+ * without invalidating the outstanding tokens.
+ * Serves a Nimbus JWT processor both as its key selector and as its verifier factory,
+ * the latter handing out verifiers built once per key, including the Ed25519 ones
+ * which Nimbus' default factory doesn't support.
+ */
+public class JwsKeyRing {
+
+    /**
+     * How long clients may cache the published keys.
+     * When rotating, publish a new key as a verification key at least this long before it starts signing.
+     */
+    public static final Duration KEYS_MAX_AGE = Duration.ofHours(1);
+
+    @Getter
+    private final JwsKey signingKey;
+
+    /**
+     * All the keys, the signing key first
+     */
+    @Getter
+    private final List<JwsKey> keys;
+
+    private final Map<String, KeyVerifier> verifiers;
+
+    private final Set<JWSAlgorithm> algorithms;
+    private final JCAContext jcaContext = new JCAContext();
+
+    private record KeyVerifier(JwsAlgorithm algorithm, PublicKey publicKey, JWSVerifier verifier) {
+    }
+
+    @SneakyThrows
+    public JwsKeyRing(JwsKey signingKey, List<JwsKey> verificationKeys) {
+
+        this.signingKey = signingKey;
+        keys = Stream.concat(Stream.of(signingKey), verificationKeys.stream()).toList();
+
+        var verifierMap = new HashMap<String, KeyVerifier>();
+        for (var key : keys)
+            if (verifierMap.put(key.id(), new KeyVerifier(key.algorithm(), key.publicKey(), key.verifier())) != null)
+                throw new IllegalStateException("Duplicate JWS key id " + key.id());
+        verifiers = Collections.unmodifiableMap(verifierMap);
+
+        var algorithmSet = new HashSet<JWSAlgorithm>();
+        for (var algorithm : JwsAlgorithm.values())
+            algorithmSet.add(algorithm.getJwsAlgorithm());
+        algorithms = Collections.unmodifiableSet(algorithmSet);
+    }
+
+    public static JwsKeyRing of(MyProperties.Jws jws) {
+        return new JwsKeyRing(
+                JwsKey.of(jws),
+                jws.verificationKeys().stream().map(JwsKey::of).toList()
+        );
+    }
+
+    /**
+     * Selects the public key having the kid of the header,
+     * provided that the key is meant for the algorithm of the header
+     */
+    public JWSKeySelector<SecurityContext> keySelector() {
+        return (header, context) -> keyVerifierFor(header)
+                .<List<Key>>map(keyVerifier -> List.of(keyVerifier.publicKey()))
+                .orElse(List.of());
+    }
+
+    /**
+     * Hands out the prebuilt verifier of the key chosen by {@link #keySelector()}
+     */
+    public JWSVerifierFactory verifierFactory() {
+        return new VerifierFactory();
+    }
+
+    private Optional<KeyVerifier> keyVerifierFor(JWSHeader header) {
+        return Optional.ofNullable(header.getKeyID())
+                .map(verifiers::get)
+                .filter(keyVerifier -> keyVerifier.algorithm().getJwsAlgorithm().equals(header.getAlgorithm()));
+    }
+
+    private class VerifierFactory implements JWSVerifierFactory {
+
+        @Override
+        public JWSVerifier createJWSVerifier(JWSHeader header, Key key) throws JOSEException {
+            return keyVerifierFor(header)
+                    .filter(keyVerifier -> keyVerifier.publicKey() == key)
+                    .map(KeyVerifier::verifier)
+                    .orElseThrow(() -> new JOSEException("No verifier for the key " + header.getKeyID()));
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return algorithms;
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return jcaContext;
+        }
+    }
+}
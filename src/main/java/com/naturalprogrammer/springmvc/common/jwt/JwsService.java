@@ -2,45 +2,65 @@ package com.naturalprogrammer.springmvc.common.jwt;
 
 import com.naturalprogrammer.springmvc.common.error.ProblemType;
 import com.naturalprogrammer.springmvc.config.MyProperties;
-import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.RSASSASigner;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
-import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jwt.JWTClaimNames;
+import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.nimbusds.jwt.proc.JWTProcessor;
 import io.jbock.util.Either;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.Clock;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * Creates the JWS tokens using the active signing key, and parses them using the key ring.
+ * Bearer tokens received by the resource server are also parsed here (see {@link JwsDecoder}),
+ * so that there's a single verification pipeline.
+ */
 @Slf4j
 @Component
 public class JwsService extends AbstractJwtService {
 
+    @Getter
+    private final JwsKeyRing keyRing;
     private final JWSHeader header;
     private final JWSSigner signer;
-    private final JWSVerifier verifier;
+    private final JWTProcessor<SecurityContext> jwtProcessor;
 
     @SneakyThrows
-    public JwsService(Clock clock, MyProperties properties) {
-        
-        super(clock, properties);
+    public JwsService(Clock clock, MyProperties properties, MeterRegistry meterRegistry) {
 
-        header = new JWSHeader.Builder(JWSAlgorithm.RS256)
-                .keyID(properties.jws().id())
-                .build();
+        super(clock, properties, meterRegistry, "jws");
 
-        var key = new RSAKey
-                .Builder(properties.jws().publicKey())
-                .privateKey(properties.jws().privateKey())
-                .keyID(properties.jws().id())
+        keyRing = JwsKeyRing.of(properties.jws());
+        var signingKey = keyRing.getSigningKey();
+        header = new JWSHeader.Builder(signingKey.algorithm().getJwsAlgorithm())
+                .keyID(signingKey.id())
                 .build();
 
-        signer = new RSASSASigner(key);
-        verifier = new RSASSAVerifier(key);
+        signer = signingKey.signer();
+        jwtProcessor = createJwtProcessor(keyRing);
+    }
+
+    private static JWTProcessor<SecurityContext> createJwtProcessor(JwsKeyRing keyRing) {
+
+        var processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(keyRing.keySelector());
+        processor.setJWSVerifierFactory(keyRing.verifierFactory());
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+            // claims are validated by AbstractJwtService.parseToken
+        });
+        return processor;
     }
 
     @Override
@@ -51,12 +71,27 @@ public class JwsService extends AbstractJwtService {
         return jws.serialize();
     }
 
+    /**
+     * Creates a template for minting tokens having the given static claims, besides iss and aud.
+     * Note that the issuer and audience are captured now.
+     */
+    public JwsTemplate createTemplate(Map<String, Object> claims) {
+
+        var staticClaims = new LinkedHashMap<String, Object>();
+        staticClaims.put(JWTClaimNames.ISSUER, properties.homepage());
+        staticClaims.put(JWTClaimNames.AUDIENCE, properties.homepage());
+        staticClaims.putAll(claims);
+
+        return new JwsTemplate(header, signer, clock, staticClaims);
+    }
+
     @Override
-    @SneakyThrows
     protected Either<ProblemType, JWTClaimsSet> getClaims(String token) {
-        var jws = JWSObject.parse(token);
-        return jws.verify(verifier)
-                ? Either.right(JWTClaimsSet.parse(jws.getPayload().toJSONObject()))
-                : Either.left(ProblemType.TOKEN_VERIFICATION_FAILED);
+        try {
+            return Either.right(jwtProcessor.process(token, null));
+        } catch (Exception ex) {
+            log.warn("JWS verification failed", ex);
+            return Either.left(ProblemType.TOKEN_VERIFICATION_FAILED);
+        }
     }
 }
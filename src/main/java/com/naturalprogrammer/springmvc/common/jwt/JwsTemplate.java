@@ -0,0 +1,62 @@
+package com.naturalprogrammer.springmvc.common.jwt;
+
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jose.util.JSONStringUtils;
+import com.nimbusds.jwt.JWTClaimNames;
+import lombok.SneakyThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * A fast path for minting JWS tokens that differ only in subject and validity.
+ * The Base64URL encoded header and the JSON of the static claims are computed once,
+ * so that creating a token just writes sub, iat and exp, and signs.
+ * The payload is written into a buffer presized for the template, so that it doesn't grow,
+ * but the buffer isn't reused across tokens: a per-thread one would be held by every virtual thread,
+ * and a shared one would need locking.
+ * Create using {@link JwsService#createTemplate(Map)}.
+ */
+public class JwsTemplate {
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JWSHeader header;
+    private final String encodedHeader;
+    private final JWSSigner signer;
+    private final Clock clock;
+    private final String staticClaims;
+    private final int payloadCapacity;
+
+    JwsTemplate(JWSHeader header, JWSSigner signer, Clock clock, Map<String, Object> staticClaims) {
+
+        this.header = header;
+        this.encodedHeader = header.toBase64URL().toString();
+        this.signer = signer;
+        this.clock = clock;
+
+        var json = JSONObjectUtils.toJSONString(staticClaims);
+        this.staticClaims = json.substring(1, json.length() - 1); // without the braces
+        this.payloadCapacity = this.staticClaims.length() + 128;
+    }
+
+    @SneakyThrows
+    public String createToken(String subject, Instant validUntil) {
+
+        var payload = new StringBuilder(payloadCapacity)
+                .append("{\"").append(JWTClaimNames.SUBJECT).append("\":").append(JSONStringUtils.toJSONString(subject))
+                .append(",\"").append(JWTClaimNames.ISSUED_AT).append("\":").append(clock.instant().getEpochSecond())
+                .append(",\"").append(JWTClaimNames.EXPIRATION_TIME).append("\":").append(validUntil.getEpochSecond())
+                .append(',').append(staticClaims)
+                .append('}');
+
+        var signingInput = encodedHeader + '.' + BASE64URL.encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+        var signature = signer.sign(header, signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + '.' + signature;
+    }
+}
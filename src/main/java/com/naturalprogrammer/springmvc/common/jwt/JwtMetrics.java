@@ -0,0 +1,82 @@
+package com.naturalprogrammer.springmvc.common.jwt;
+
+import com.naturalprogrammer.springmvc.common.error.ProblemType;
+import com.nimbusds.jwt.JWTClaimsSet;
+import io.jbock.util.Either;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.naturalprogrammer.springmvc.common.jwt.JwtPurpose.PURPOSE;
+
+/**
+ * Times the parsing and verification of the tokens, tagged by token type, purpose and outcome.
+ * Each purpose/outcome timer is registered the first time it's needed and then reused,
+ * so that parsing a token doesn't look up the registry.
+ */
+class JwtMetrics {
+
+    public static final String TIMER_NAME = "jwt.parse";
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final String VALID = "VALID";
+
+    private static final JwtPurpose[] PURPOSES = JwtPurpose.values();
+    private static final ProblemType[] PROBLEM_TYPES = ProblemType.values();
+    private static final int UNKNOWN_PURPOSE = PURPOSES.length;
+    private static final int VALID_OUTCOME = PROBLEM_TYPES.length;
+
+    private final MeterRegistry meterRegistry;
+    private final String tokenType;
+
+    // Indexed by purpose ordinal (or UNKNOWN_PURPOSE) * (VALID_OUTCOME + 1) + problem type ordinal (or VALID_OUTCOME)
+    private final AtomicReferenceArray<Timer> timers =
+            new AtomicReferenceArray<>((UNKNOWN_PURPOSE + 1) * (VALID_OUTCOME + 1));
+
+    JwtMetrics(MeterRegistry meterRegistry, String tokenType) {
+        this.meterRegistry = meterRegistry;
+        this.tokenType = tokenType;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stop(
+            Timer.Sample sample,
+            Either<ProblemType, JWTClaimsSet> claims,
+            Either<ProblemType, JWTClaimsSet> result
+    ) {
+        var purpose = claims.getRight().map(JwtMetrics::purposeOf).orElse(UNKNOWN_PURPOSE);
+        var outcome = result.getLeft().map(ProblemType::ordinal).orElse(VALID_OUTCOME);
+        sample.stop(timer(purpose, outcome));
+    }
+
+    private Timer timer(int purpose, int outcome) {
+
+        var index = purpose * (VALID_OUTCOME + 1) + outcome;
+        var timer = timers.get(index);
+        if (timer == null) {
+            // A race only registers the same timer twice, which the registry deduplicates
+            timer = Timer.builder(TIMER_NAME)
+                    .description("Time taken to parse, verify and validate a token")
+                    .tag("type", tokenType)
+                    .tag("purpose", purpose == UNKNOWN_PURPOSE ? UNKNOWN : PURPOSES[purpose].name())
+                    .tag("outcome", outcome == VALID_OUTCOME ? VALID : PROBLEM_TYPES[outcome].name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            timers.set(index, timer);
+        }
+        return timer;
+    }
+
+    // Don't let arbitrary claim values blow up the tag cardinality
+    private static int purposeOf(JWTClaimsSet claims) {
+
+        var purpose = claims.getClaim(PURPOSE);
+        for (var candidate : PURPOSES)
+            if (candidate.name().equals(purpose))
+                return candidate.ordinal();
+        return UNKNOWN_PURPOSE;
+    }
+}
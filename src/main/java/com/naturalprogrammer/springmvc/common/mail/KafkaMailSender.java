@@ -0,0 +1,169 @@
+package com.naturalprogrammer.springmvc.common.mail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the mails to Kafka, and sends them from a listener in the application's consumer group,
+ * through the {@link MailSender#TRANSPORT} sender. So, MailOutboxDispatcher only relays the mails,
+ * and the sending scales with the partitions of the topic, across all the nodes.
+ * A mail is acknowledged after it's sent. Failed mails are retried with exponential backoff,
+ * and then published to the dead letter topic.
+ */
+@Slf4j
+@Primary
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "my.mail-kafka", name = "enabled", havingValue = "true")
+public class KafkaMailSender implements MailSender {
+
+    public static final String TOPIC = "mails";
+    public static final String DEAD_LETTER_TOPIC = TOPIC + ".DLT";
+    public static final String LISTENER_ID = "mails-listener";
+    public static final String LAG_TIMER_NAME = "mail.kafka.lag";
+
+    private final MailSender transport;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final MyProperties.MailKafka config;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final Timer lagTimer;
+
+    public KafkaMailSender(
+            @Qualifier(TRANSPORT) MailSender transport,
+            ObjectMapper objectMapper,
+            Clock clock,
+            MyProperties properties,
+            ProducerFactory<String, String> producerFactory,
+            MeterRegistry meterRegistry
+    ) {
+        this.transport = transport;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.config = properties.mailKafka();
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory,
+                Map.of(ProducerConfig.MAX_BLOCK_MS_CONFIG, (int) config.sendTimeout().toMillis()));
+
+        lagTimer = Timer.builder(LAG_TIMER_NAME)
+                .description("Time from publishing a mail to sending it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Bean
+    public NewTopic mailsTopic() {
+        return TopicBuilder.name(TOPIC).partitions(config.partitions()).build();
+    }
+
+    @Bean
+    public NewTopic mailsDeadLetterTopic() {
+        // DeadLetterPublishingRecoverer publishes to <topic>.DLT, on the same partition number
+        return TopicBuilder.name(DEAD_LETTER_TOPIC).partitions(config.partitions()).build();
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> mailListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory
+    ) {
+        var backOff = new ExponentialBackOffWithMaxRetries(config.maxAttempts() - 1);
+        backOff.setInitialInterval(config.retryBackoff().toMillis());
+        backOff.setMultiplier(2);
+
+        var factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setConcurrency(config.concurrency());
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new DeadLetterPublishingRecoverer(kafkaTemplate), backOff));
+        return factory;
+    }
+
+    @SneakyThrows
+    @Override
+    public void send(MailData mail) {
+        var failure = sendAll(List.of(mail)).get(mail);
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Publishes all the mails first, and then waits for the acknowledgements,
+     * so that the producer can batch them
+     */
+    @Override
+    public Map<MailData, Exception> sendAll(List<MailData> mails) {
+
+        var futures = new IdentityHashMap<MailData, CompletableFuture<SendResult<String, String>>>(mails.size());
+        var failures = new IdentityHashMap<MailData, Exception>();
+        for (var mail : mails) {
+            try {
+                // keyed by the recipient, so that the mails to someone are sent in order
+                futures.put(mail, kafkaTemplate.send(TOPIC, mail.to(), toJson(mail)));
+            } catch (Exception e) {
+                failures.put(mail, e);
+            }
+        }
+
+        var deadline = System.nanoTime() + config.sendTimeout().toNanos();
+        futures.forEach((mail, future) -> {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                failures.put(mail, (Exception) e.getCause());
+            } catch (Exception e) { // a timed out mail may still get published, and then be sent twice
+                failures.put(mail, e);
+            }
+        });
+
+        log.info("Published {} of {} mails", mails.size() - failures.size(), mails.size());
+        return failures;
+    }
+
+    @KafkaListener(id = LISTENER_ID, topics = TOPIC, containerFactory = "mailListenerContainerFactory")
+    public void onMail(ConsumerRecord<String, String> mailRecord, Acknowledgment ack) throws Exception {
+
+        var mail = objectMapper.readValue(mailRecord.value(), MailData.class);
+        transport.send(mail); // on failure, retried by the error handler
+        ack.acknowledge();
+        lagTimer.record(Duration.between(Instant.ofEpochMilli(mailRecord.timestamp()), clock.instant()));
+    }
+
+    @SneakyThrows
+    private String toJson(MailData mail) {
+        if (mail.attachment() != null)
+            throw new IllegalArgumentException("Attachments can't be published: " + mail);
+        return objectMapper.writeValueAsString(mail);
+    }
+}
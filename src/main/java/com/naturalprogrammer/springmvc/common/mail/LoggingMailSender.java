@@ -1,26 +1,52 @@
 package com.naturalprogrammer.springmvc.common.mail;
 
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Logs the mails instead of sending them, and keeps the recent ones for tests
+ * and the {@link SentMailsEndpoint}. The buffer is static so that tests can reach it,
+ * and is shared by all the application contexts having the same capacity.
+ */
 @Slf4j
 @Component
+@Qualifier(MailSender.TRANSPORT)
 @Profile({"default", "test", "azure-staging", "azure-live", "digitalocean-staging", "digitalocean-live"})
 public class LoggingMailSender implements MailSender {
 
-    private static final List<MailData> SENT_MAILS = new ArrayList<>();
+    public static final String CAPTURED_COUNTER_NAME = "mail.capture.appended";
+    public static final String DROPPED_COUNTER_NAME = "mail.capture.dropped";
+
+    private static volatile MailRingBuffer sentMails = new MailRingBuffer(100);
+
+    public LoggingMailSender(MyProperties properties, MeterRegistry meterRegistry) {
+
+        var capacity = properties.mailCapture().capacity();
+        if (sentMails.capacity() != capacity)
+            sentMails = new MailRingBuffer(capacity);
+
+        FunctionCounter.builder(CAPTURED_COUNTER_NAME, this, sender -> sentMails.appended())
+                .description("Mails captured instead of being sent")
+                .register(meterRegistry);
+        FunctionCounter.builder(DROPPED_COUNTER_NAME, this, sender -> sentMails.dropped())
+                .description("Captured mails overwritten by newer ones")
+                .register(meterRegistry);
+    }
 
     @Override
     public void send(MailData mail) {
-        SENT_MAILS.add(mail);
+        sentMails.add(mail);
         log.info("Sending {}", mail);
     }
 
     public static List<MailData> sentMails() {
-        return SENT_MAILS;
+        return sentMails.asList();
     }
 }
@@ -0,0 +1,67 @@
+package com.naturalprogrammer.springmvc.common.mail;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers the recently sent mails by key, so that repeating one within the window,
+ * e.g. an impatient user resending the verification mail, is suppressed before minting a token
+ * and rendering the mail again. The earlier mail, and its still valid token, then stands.
+ * The window is per node; across nodes, the outbox still skips a mail whose key is pending.
+ */
+@Component
+public class MailCoalescer {
+
+    public static final String SUPPRESSED_COUNTER_NAME = "mail.suppressed";
+
+    private final Cache<String, Boolean> recent;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> suppressedCounters = new ConcurrentHashMap<>();
+
+    public MailCoalescer(MyProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    MailCoalescer(MyProperties properties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        var config = properties.mailCoalescing();
+        this.meterRegistry = meterRegistry;
+        recent = Caffeine.newBuilder()
+                .maximumSize(config.maximumKeys())
+                .expireAfterWrite(config.window())
+                .ticker(nanoTime::getAsLong)
+                .build();
+    }
+
+    /**
+     * @param mail the kind of the mail, e.g. "verification", to tag the suppressed counter with
+     * @return false if a mail with the same key was sent within the window
+     */
+    public boolean tryAcquire(String key, String mail) {
+        if (recent.asMap().putIfAbsent(key, Boolean.TRUE) == null)
+            return true;
+        suppressedCounters.computeIfAbsent(mail, this::suppressedCounter).increment();
+        return false;
+    }
+
+    private Counter suppressedCounter(String mail) {
+        return Counter.builder(SUPPRESSED_COUNTER_NAME)
+                .description("Mails not sent, as the same mail was sent recently")
+                .tag("mail", mail)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Forgets a key, e.g. when queuing its mail failed, so that a retry isn't suppressed
+     */
+    public void release(String key) {
+        recent.invalidate(key);
+    }
+}
@@ -6,8 +6,13 @@ public record MailData(
         String to,
         String subject,
         String bodyHtml,
+        String bodyText, // the plain text alternative, if any
         Attachment attachment
 ) {
+    public MailData(String to, String subject, String bodyHtml, Attachment attachment) {
+        this(to, subject, bodyHtml, null, attachment);
+    }
+
     public record Attachment(
             String name,
             InputStreamSource inputStreamSource,
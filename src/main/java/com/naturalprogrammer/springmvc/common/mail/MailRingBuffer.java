@@ -0,0 +1,85 @@
+package com.naturalprogrammer.springmvc.common.mail;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the last few mails, overwriting the oldest ones when full.
+ * Appending is lock-free: a sequence number picks the slot, which is then written with the mail and its sequence.
+ * Reading skips a slot whose sequence isn't the expected one, i.e. not written yet or already overwritten,
+ * so a read concurrent with appends may miss those mails, which is fine for inspecting recent mails.
+ */
+public class MailRingBuffer {
+
+    private record Slot(long sequence, MailData mail) {
+    }
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final AtomicLong appended = new AtomicLong();
+    private volatile long clearedAt;
+
+    public MailRingBuffer(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void add(MailData mail) {
+        var sequence = appended.getAndIncrement();
+        slots.set((int) (sequence % slots.length()), new Slot(sequence, mail));
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public long appended() {
+        return appended.get();
+    }
+
+    /**
+     * @return how many mails were overwritten by newer ones
+     */
+    public long dropped() {
+        return Math.max(0, appended.get() - slots.length());
+    }
+
+    public void clear() {
+        clearedAt = appended.get();
+    }
+
+    /**
+     * @return a snapshot of the retained mails, oldest first, whose clear() clears this buffer
+     */
+    public List<MailData> asList() {
+
+        var end = appended.get();
+        var mails = new ArrayList<MailData>((int) Math.min(end, slots.length()));
+        for (var sequence = Math.max(clearedAt, end - slots.length()); sequence < end; sequence++) {
+            var slot = slots.get((int) (sequence % slots.length()));
+            if (slot != null && slot.sequence() == sequence)
+                mails.add(slot.mail());
+        }
+
+        return new AbstractList<>() {
+
+            @Override
+            public MailData get(int index) {
+                return mails.get(index);
+            }
+
+            @Override
+            public int size() {
+                return mails.size();
+            }
+
+            @Override
+            public void clear() {
+                MailRingBuffer.this.clear();
+            }
+        };
+    }
+}
@@ -1,5 +1,33 @@
 package com.naturalprogrammer.springmvc.common.mail;
 
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 public interface MailSender {
+
+    /**
+     * Qualifies the sender that actually delivers the mails, e.g. over SMTP,
+     * as opposed to one that relays them, like {@link KafkaMailSender}
+     */
+    String TRANSPORT = "mailTransport";
+
     void send(MailData mail);
+
+    /**
+     * Sends a batch of mails, which implementations may send over shared connections
+     *
+     * @return the mails that couldn't be sent, keyed by the given instances, with the reasons
+     */
+    default Map<MailData, Exception> sendAll(List<MailData> mails) {
+        var failures = new IdentityHashMap<MailData, Exception>();
+        for (var mail : mails) {
+            try {
+                send(mail);
+            } catch (Exception e) { // implementations may sneakily throw checked exceptions
+                failures.put(mail, e);
+            }
+        }
+        return failures;
+    }
 }
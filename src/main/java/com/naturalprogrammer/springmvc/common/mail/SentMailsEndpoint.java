@@ -0,0 +1,46 @@
+package com.naturalprogrammer.springmvc.common.mail;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Lists the recent mails captured by {@link LoggingMailSender}, at /actuator/mails.
+ * Their bodies carry live verification and password reset tokens,
+ * so it's left out of the live profiles, where LoggingMailSender only logs.
+ */
+@Component
+@Endpoint(id = SentMailsEndpoint.ID)
+@Profile({"default", "test", "azure-staging", "digitalocean-staging"})
+public class SentMailsEndpoint {
+
+    public static final String ID = "mails";
+
+    @ReadOperation
+    public List<SentMail> sentMails() {
+        return LoggingMailSender.sentMails().stream()
+                .map(SentMail::of)
+                .toList();
+    }
+
+    public record SentMail(
+            String to,
+            String subject,
+            String bodyHtml,
+            String bodyText,
+            String attachmentName
+    ) {
+        static SentMail of(MailData mail) {
+            return new SentMail(
+                    mail.to(),
+                    mail.subject(),
+                    mail.bodyHtml(),
+                    mail.bodyText(),
+                    mail.attachment() == null ? null : mail.attachment().name()
+            );
+        }
+    }
+}
@@ -1,26 +1,147 @@
 package com.naturalprogrammer.springmvc.common.mail;
 
-import lombok.RequiredArgsConstructor;
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Profile;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends mails synchronously, so that MailOutboxDispatcher, which is already off the request path,
+ * can retry the failed ones. A batch is split across the connections of an {@link SmtpTransportPool},
+ * and the parts are sent in parallel, each over one long-lived connection.
+ * The sending threads are platform ones, because Jakarta Mail's SMTPTransport.sendMessage
+ * is synchronized, and would pin virtual threads to their carriers.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
+@Qualifier(MailSender.TRANSPORT)
 @Profile({"staging", "live"})
-public class SmtpMailSender implements MailSender {
+public class SmtpMailSender implements MailSender, AutoCloseable {
+
+    public static final String SENT_COUNTER_NAME = "mail.smtp.sent";
+    public static final String BATCH_TIMER_NAME = "mail.smtp.batch";
+
+    private final JavaMailSenderImpl javaMailSender;
+    private final SmtpTransportPool pool;
+    private final ExecutorService executor;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    public SmtpMailSender(JavaMailSenderImpl javaMailSender, MyProperties properties, MeterRegistry meterRegistry) {
 
-    private final JavaMailSender javaMailSender;
+        this.javaMailSender = javaMailSender;
+
+        var config = properties.smtpPool();
+        pool = new SmtpTransportPool(
+                javaMailSender, config.maxConnections(), config.maxIdle(), config.borrowTimeout(), meterRegistry);
+        executor = Executors.newFixedThreadPool(
+                config.maxConnections(), Thread.ofPlatform().name("smtp-", 1).factory());
+
+        sentCounter = Counter.builder(SENT_COUNTER_NAME)
+                .description("Mails sent over SMTP")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        failedCounter = Counter.builder(SENT_COUNTER_NAME)
+                .description("Mails sent over SMTP")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        batchTimer = Timer.builder(BATCH_TIMER_NAME)
+                .description("Time taken to send a batch of mails")
+                .register(meterRegistry);
+    }
 
-    @Async
     @SneakyThrows
     @Override
     public void send(MailData mail) {
+        var failure = sendAll(List.of(mail)).get(mail);
+        if (failure != null)
+            throw failure;
+    }
+
+    @Override
+    public Map<MailData, Exception> sendAll(List<MailData> mails) {
+
+        var failures = Collections.synchronizedMap(new IdentityHashMap<MailData, Exception>());
+        var parts = split(mails, pool.maxConnections());
+        var tasks = parts.stream()
+                .map(part -> (Callable<Void>) () -> {
+                    sendPart(part, failures);
+                    return null;
+                })
+                .toList();
+
+        batchTimer.record(() -> {
+            try {
+                executor.invokeAll(tasks);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                mails.forEach(mail -> failures.putIfAbsent(mail, e));
+            }
+        });
+        log.info("Sent {} of {} mails", mails.size() - failures.size(), mails.size());
+        return failures;
+    }
+
+    private void sendPart(List<MailData> mails, Map<MailData, Exception> failures) {
+
+        Transport transport;
+        try {
+            transport = pool.borrow();
+        } catch (Exception e) {
+            log.warn("Couldn't get an SMTP connection for {} mails", mails.size(), e);
+            mails.forEach(mail -> failures.put(mail, e));
+            failedCounter.increment(mails.size());
+            return;
+        }
+
+        var broken = false;
+        try {
+            for (var mail : mails) {
+                if (broken) {
+                    failures.put(mail, new MessagingException("SMTP connection broke while sending the batch"));
+                    failedCounter.increment();
+                    continue;
+                }
+                try {
+                    var message = toMimeMessage(mail);
+                    transport.sendMessage(message, message.getAllRecipients());
+                    sentCounter.increment();
+                } catch (SendFailedException e) { // rejected recipients; the connection is fine
+                    fail(mail, e, failures);
+                } catch (MessagingException | RuntimeException e) {
+                    fail(mail, e, failures);
+                    broken = true;
+                }
+            }
+        } finally {
+            pool.release(transport, broken);
+        }
+    }
+
+    private void fail(MailData mail, Exception e, Map<MailData, Exception> failures) {
+        log.warn("Couldn't send {}", mail, e);
+        failures.put(mail, e);
+        failedCounter.increment();
+    }
+
+    private MimeMessage toMimeMessage(MailData mail) throws MessagingException {
 
         log.info("Sending {}", mail);
         var message = javaMailSender.createMimeMessage();
@@ -29,13 +150,32 @@ public class SmtpMailSender implements MailSender {
         var helper = new MimeMessageHelper(message, true);
         helper.setTo(mail.to());
         helper.setSubject(mail.subject());
-        helper.setText(mail.bodyHtml(), true);
+        if (mail.bodyText() == null)
+            helper.setText(mail.bodyHtml(), true);
+        else
+            helper.setText(mail.bodyText(), mail.bodyHtml());
 
         var attachment = mail.attachment();
         if (attachment != null) {
             helper.addAttachment(attachment.name(), attachment.inputStreamSource(), attachment.contentType());
         }
 
-        javaMailSender.send(message);
+        message.setSentDate(new Date());
+        message.saveChanges(); // JavaMailSender.send used to do it
+        return message;
+    }
+
+    private static <T> List<List<T>> split(List<T> list, int maxParts) {
+        var partSize = Math.max(1, (list.size() + maxParts - 1) / maxParts);
+        var parts = new ArrayList<List<T>>();
+        for (int i = 0; i < list.size(); i += partSize)
+            parts.add(list.subList(i, Math.min(list.size(), i + partSize)));
+        return parts;
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+        pool.close();
     }
 }
@@ -0,0 +1,134 @@
+package com.naturalprogrammer.springmvc.common.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps SMTP connections open across batches, so that a mail doesn't pay
+ * for the TCP, STARTTLS and AUTH handshakes. At most maxConnections are open;
+ * borrowers wait up to borrowTimeout for one, and then fail.
+ * Connections idle longer than maxIdle, or found broken, are reopened.
+ */
+@Slf4j
+public class SmtpTransportPool implements AutoCloseable {
+
+    public static final String OPENED_COUNTER_NAME = "mail.smtp.connections.opened";
+    public static final String IDLE_GAUGE_NAME = "mail.smtp.connections.idle";
+
+    private record IdleTransport(Transport transport, long idleSince) {
+    }
+
+    private final JavaMailSenderImpl mailSender;
+    private final int maxConnections;
+    private final Duration maxIdle;
+    private final Duration borrowTimeout;
+    private final LongSupplier nanoTime;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<IdleTransport> idle = new LinkedBlockingDeque<>();
+    private final Counter openedCounter;
+
+    public SmtpTransportPool(
+            JavaMailSenderImpl mailSender,
+            int maxConnections,
+            Duration maxIdle,
+            Duration borrowTimeout,
+            MeterRegistry meterRegistry
+    ) {
+        this(mailSender, maxConnections, maxIdle, borrowTimeout, meterRegistry, System::nanoTime);
+    }
+
+    SmtpTransportPool(
+            JavaMailSenderImpl mailSender,
+            int maxConnections,
+            Duration maxIdle,
+            Duration borrowTimeout,
+            MeterRegistry meterRegistry,
+            LongSupplier nanoTime
+    ) {
+        this.mailSender = mailSender;
+        this.maxConnections = maxConnections;
+        this.maxIdle = maxIdle;
+        this.borrowTimeout = borrowTimeout;
+        this.nanoTime = nanoTime;
+        this.permits = new Semaphore(maxConnections, true);
+
+        openedCounter = Counter.builder(OPENED_COUNTER_NAME)
+                .description("SMTP connections opened, i.e. handshakes paid")
+                .register(meterRegistry);
+        Gauge.builder(IDLE_GAUGE_NAME, idle, LinkedBlockingDeque::size)
+                .description("Open SMTP connections waiting in the pool")
+                .register(meterRegistry);
+    }
+
+    public int maxConnections() {
+        return maxConnections;
+    }
+
+    public Transport borrow() throws MessagingException, InterruptedException {
+
+        if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS))
+            throw new MailSendException("No SMTP connection became free within " + borrowTimeout);
+
+        try {
+            IdleTransport candidate;
+            while ((candidate = idle.pollLast()) != null) { // most recently used first
+                if (nanoTime.getAsLong() - candidate.idleSince() < maxIdle.toNanos()
+                        && candidate.transport().isConnected()) // sends a NOOP
+                    return candidate.transport();
+                closeQuietly(candidate.transport());
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a borrowed connection, closing it if the borrower found it broken
+     */
+    public void release(Transport transport, boolean broken) {
+        if (broken)
+            closeQuietly(transport);
+        else
+            idle.offerLast(new IdleTransport(transport, nanoTime.getAsLong()));
+        permits.release();
+    }
+
+    private Transport connect() throws MessagingException {
+
+        var protocol = mailSender.getProtocol() == null ? JavaMailSenderImpl.DEFAULT_PROTOCOL : mailSender.getProtocol();
+        var transport = mailSender.getSession().getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        openedCounter.increment();
+        log.debug("Opened an SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return transport;
+    }
+
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Couldn't close an SMTP connection", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        IdleTransport candidate;
+        while ((candidate = idle.poll()) != null)
+            closeQuietly(candidate.transport());
+    }
+}
@@ -0,0 +1,42 @@
+package com.naturalprogrammer.springmvc.common.mail.outbox;
+
+import com.naturalprogrammer.springmvc.common.mail.MailData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.UUID;
+
+/**
+ * Queues mails in the database, to be sent by {@link MailOutboxDispatcher}.
+ * Queue within the transaction that changes the data the mail is about,
+ * so that either both or none are committed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MailOutbox {
+
+    private final OutboxMailRepository outboxMailRepository;
+    private final Clock clock;
+
+    /**
+     * @param idempotencyKey a mail isn't queued if another one having the same key is pending
+     */
+    @Transactional
+    public void enqueue(String idempotencyKey, MailData mail) {
+
+        if (mail.attachment() != null)
+            throw new IllegalArgumentException("Attachments can't be queued: " + mail);
+
+        var inserted = outboxMailRepository.insertIfNotPending(
+                UUID.randomUUID(), idempotencyKey, mail.to(), mail.subject(), mail.bodyHtml(), mail.bodyText(), clock.instant());
+
+        if (inserted == 0)
+            log.info("Not queuing {}, as a mail with key {} is pending", mail, idempotencyKey);
+        else
+            log.info("Queued {} with key {}", mail, idempotencyKey);
+    }
+}
@@ -0,0 +1,194 @@
+package com.naturalprogrammer.springmvc.common.mail.outbox;
+
+import com.naturalprogrammer.springmvc.common.mail.MailData;
+import com.naturalprogrammer.springmvc.common.mail.MailSender;
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends the queued mails in batches, through {@link MailSender#sendAll}, in three steps:
+ * <ol>
+ * <li>A short transaction claims the due mails, locking them with FOR UPDATE SKIP LOCKED
+ * and pushing their next_attempt_at forward by the lease, so that other dispatchers, e.g. on other nodes, skip them.</li>
+ * <li>The batch is sent outside any transaction, so no connection or row lock is held while SMTP or Kafka is slow.</li>
+ * <li>Another short transaction locks the mails and marks each sent or failed, unless its lease has expired and
+ * another dispatcher has claimed it since. The lock keeps such a claim from slipping in between the check and the mark.</li>
+ * </ol>
+ * A mail is thus sent at least once: a crash after sending but before marking would send it again when the lease expires.
+ * Failed mails are retried with exponential backoff, until maxAttempts.
+ */
+@Slf4j
+@Service
+public class MailOutboxDispatcher {
+
+    public static final String LAG_TIMER_NAME = "mail.outbox.lag";
+    public static final String FAILED_COUNTER_NAME = "mail.outbox.failed";
+    public static final String PENDING_GAUGE_NAME = "mail.outbox.pending";
+
+    private static final int MAX_BACKOFF_SHIFT = 10;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxMailRepository outboxMailRepository;
+    private final MailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final MyProperties.MailOutbox config;
+    private final Timer lagTimer;
+    private final Counter retriedCounter;
+    private final Counter abandonedCounter;
+    private final AtomicLong pending = new AtomicLong();
+
+    public MailOutboxDispatcher(
+            OutboxMailRepository outboxMailRepository,
+            MailSender mailSender,
+            TransactionTemplate transactionTemplate,
+            Clock clock,
+            MyProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.outboxMailRepository = outboxMailRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.config = properties.mailOutbox();
+
+        lagTimer = Timer.builder(LAG_TIMER_NAME)
+                .description("Time from queuing a mail to sending it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        retriedCounter = Counter.builder(FAILED_COUNTER_NAME)
+                .description("Failed attempts to send a queued mail")
+                .tag("outcome", "retry")
+                .register(meterRegistry);
+        abandonedCounter = Counter.builder(FAILED_COUNTER_NAME)
+                .description("Failed attempts to send a queued mail")
+                .tag("outcome", "abandoned")
+                .register(meterRegistry);
+        Gauge.builder(PENDING_GAUGE_NAME, pending, AtomicLong::get)
+                .description("Mails pending in the outbox, as of the last dispatch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the number of mails attempted, which equals the batch size if more may be due
+     */
+    public int dispatch() {
+
+        // truncated to the precision of the column, so that it compares equal when read back
+        var leasedUntil = clock.instant().plus(config.lease()).truncatedTo(ChronoUnit.MICROS);
+        var mails = transactionTemplate.execute(status -> claim(leasedUntil));
+        if (!mails.isEmpty()) {
+            var failures = send(mails);
+            transactionTemplate.executeWithoutResult(status -> mark(mails, failures, leasedUntil));
+        }
+        pending.set(outboxMailRepository.countByPendingTrue());
+        return mails.size();
+    }
+
+    @Transactional
+    public int purge() {
+        var purged = outboxMailRepository.deleteDoneBefore(clock.instant().minus(config.retention()));
+        log.info("Purged {} done mails from the outbox", purged);
+        return purged;
+    }
+
+    private List<OutboxMail> claim(Instant leasedUntil) {
+
+        var mails = outboxMailRepository.lockDue(clock.instant(), config.batchSize());
+        for (var mail : mails)
+            mail.setNextAttemptAt(leasedUntil);
+        return mails; // flushed on commit
+    }
+
+    /**
+     * @return the failures, indexed like the mails
+     */
+    private List<Exception> send(List<OutboxMail> mails) {
+
+        var mailData = mails.stream().map(OutboxMail::toMailData).toList();
+        Map<MailData, Exception> failures;
+        try {
+            failures = mailSender.sendAll(mailData);
+        } catch (Exception e) {
+            log.warn("Couldn't send a batch of {} mails", mails.size(), e);
+            failures = mailData.stream().collect(Collectors.toMap(
+                    Function.identity(), data -> e, (e1, e2) -> e1, IdentityHashMap::new));
+        }
+
+        var result = new ArrayList<Exception>(mails.size());
+        for (var data : mailData)
+            result.add(failures.get(data));
+        return result;
+    }
+
+    private void mark(List<OutboxMail> claimed, List<Exception> failures, Instant leasedUntil) {
+
+        var ids = claimed.stream().map(OutboxMail::getId).toList();
+        var current = outboxMailRepository.lockAllById(ids).stream()
+                .collect(Collectors.toMap(OutboxMail::getId, Function.identity()));
+
+        var now = clock.instant();
+        for (int i = 0; i < claimed.size(); i++) {
+
+            var mail = current.get(ids.get(i));
+            if (mail == null || !mail.isPending() || !leasedUntil.equals(mail.getNextAttemptAt())) {
+                log.warn("Lease of {} expired while sending it; leaving it to whoever claimed it since", claimed.get(i));
+                continue;
+            }
+
+            var failure = failures.get(i);
+            if (failure == null)
+                sent(mail, now);
+            else
+                failed(mail, failure);
+        }
+    }
+
+    private void sent(OutboxMail mail, Instant now) {
+        mail.setPending(false);
+        mail.setSentAt(now);
+        lagTimer.record(Duration.between(mail.getCreatedAt(), now));
+    }
+
+    private void failed(OutboxMail mail, Exception e) {
+
+        mail.setAttempts(mail.getAttempts() + 1);
+        mail.setLastError(truncate(e.toString()));
+
+        if (mail.getAttempts() >= config.maxAttempts()) {
+            log.error("Giving up sending {} after {} attempts", mail, mail.getAttempts(), e);
+            mail.setPending(false);
+            abandonedCounter.increment();
+            return;
+        }
+
+        var backoff = config.retryBackoff().multipliedBy(1L << Math.min(mail.getAttempts() - 1, MAX_BACKOFF_SHIFT));
+        var nextAttemptAt = clock.instant().plus(backoff);
+        log.warn("Couldn't send {}, retrying at {}", mail, nextAttemptAt, e);
+        mail.setNextAttemptAt(nextAttemptAt);
+        retriedCounter.increment();
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,32 @@
+package com.naturalprogrammer.springmvc.common.mail.outbox;
+
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the outbox periodically. Disabled in tests, which dispatch explicitly.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "my.mail-outbox", name = "polling", havingValue = "true", matchIfMissing = true)
+class MailOutboxPoller {
+
+    private final MailOutboxDispatcher dispatcher;
+    private final MyProperties properties;
+
+    @Scheduled(fixedDelayString = "${my.mail-outbox.poll-interval:1s}")
+    void poll() {
+        var batchSize = properties.mailOutbox().batchSize();
+        while (dispatcher.dispatch() == batchSize) {
+            // a full batch, so more may be due
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${my.mail-outbox.purge-interval:1h}")
+    void purge() {
+        dispatcher.purge();
+    }
+}
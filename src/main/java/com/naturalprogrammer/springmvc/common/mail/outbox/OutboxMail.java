@@ -0,0 +1,64 @@
+package com.naturalprogrammer.springmvc.common.mail.outbox;
+
+import com.naturalprogrammer.springmvc.common.mail.MailData;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "mail_outbox")
+@Getter
+@Setter
+@ToString
+public class OutboxMail {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false)
+    @ToString.Exclude // has tokens
+    private String bodyHtml;
+
+    @Column
+    @ToString.Exclude
+    private String bodyText;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // false once sent or given up
+    @Column(nullable = false)
+    private boolean pending;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column
+    private String lastError;
+
+    @Column
+    private Instant sentAt;
+
+    public MailData toMailData() {
+        return new MailData(recipient, subject, bodyHtml, bodyText, null);
+    }
+}
@@ -0,0 +1,55 @@
+package com.naturalprogrammer.springmvc.common.mail.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, UUID> {
+
+    /**
+     * @return 0 if a mail with the same key is already pending
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO mail_outbox (id, idempotency_key, recipient, subject, body_html, body_text, created_at, next_attempt_at)
+            VALUES (:id, :idempotencyKey, :recipient, :subject, :bodyHtml, :bodyText, :createdAt, :createdAt)
+            ON CONFLICT (idempotency_key) WHERE pending DO NOTHING
+            """)
+    int insertIfNotPending(
+            UUID id,
+            String idempotencyKey,
+            String recipient,
+            String subject,
+            String bodyHtml,
+            String bodyText,
+            Instant createdAt
+    );
+
+    /**
+     * Locks the due mails, skipping those locked by other dispatchers
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT * FROM mail_outbox
+            WHERE pending AND next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """)
+    List<OutboxMail> lockDue(Instant now, int limit);
+
+    /**
+     * Locks the given mails, in a fixed order, waiting for a dispatcher claiming them concurrently
+     */
+    @Query(nativeQuery = true, value = "SELECT * FROM mail_outbox WHERE id IN (:ids) ORDER BY id FOR UPDATE")
+    List<OutboxMail> lockAllById(List<UUID> ids);
+
+    long countByPendingTrue();
+
+    @Modifying
+    @Query("delete from OutboxMail m where m.pending = false and m.createdAt < :before")
+    int deleteDoneBefore(Instant before);
+}
@@ -0,0 +1,7 @@
+package com.naturalprogrammer.springmvc.common.mail.template;
+
+public record MailBody(
+        String html,
+        String text
+) {
+}
@@ -0,0 +1,86 @@
+package com.naturalprogrammer.springmvc.common.mail.template;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * A mail template, e.g. "Hello {{name}}", compiled into its literal parts and the names of the variables
+ * between them. Rendering just appends the parts into a buffer sized up front, without parsing again.
+ * In HTML templates, the values are escaped.
+ */
+public final class MailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final int EXPECTED_VALUE_LENGTH = 64; // tokens are a few hundred, names a few dozen
+
+    private final String[] literals; // one more than the variables
+    private final String[] variables;
+    private final boolean html;
+    private final int expectedLength;
+
+    private MailTemplate(String[] literals, String[] variables, boolean html) {
+        this.literals = literals;
+        this.variables = variables;
+        this.html = html;
+
+        var literalLength = 0;
+        for (var literal : literals)
+            literalLength += literal.length();
+        this.expectedLength = literalLength + variables.length * EXPECTED_VALUE_LENGTH;
+    }
+
+    public static MailTemplate compile(String source, boolean html) {
+
+        var literals = new ArrayList<String>();
+        var variables = new ArrayList<String>();
+
+        var from = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, from)) >= 0) {
+            var close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0)
+                throw new IllegalArgumentException("Unclosed " + OPEN + " at " + open + " in mail template: " + source);
+            var variable = source.substring(open + OPEN.length(), close).strip();
+            if (variable.isEmpty())
+                throw new IllegalArgumentException("Blank variable at " + open + " in mail template: " + source);
+
+            literals.add(source.substring(from, open));
+            variables.add(variable);
+            from = close + CLOSE.length();
+        }
+        literals.add(source.substring(from));
+
+        return new MailTemplate(literals.toArray(String[]::new), variables.toArray(String[]::new), html);
+    }
+
+    public String render(Map<String, ?> values) {
+
+        var out = new StringBuilder(expectedLength);
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            var value = values.get(variables[i]);
+            if (value == null)
+                throw new IllegalArgumentException("No value for mail template variable " + variables[i]);
+            if (html)
+                appendEscaped(out, value.toString());
+            else
+                out.append(value);
+        }
+        return out.append(literals[variables.length]).toString();
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
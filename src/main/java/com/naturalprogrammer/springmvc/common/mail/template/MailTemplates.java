@@ -0,0 +1,77 @@
+package com.naturalprogrammer.springmvc.common.mail.template;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.SneakyThrows;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders the mail templates at classpath:/mail-templates/&lt;name&gt;[_&lt;locale&gt;].html and .txt,
+ * for the current locale. Each template is compiled once per locale, falling back the way
+ * resource bundles do, e.g. verification_fr_CA.html, verification_fr.html, verification.html.
+ */
+@Component
+public class MailTemplates {
+
+    public static final String LOCATION = "classpath:/mail-templates/";
+
+    // bounded, as the locales come from the clients
+    private static final int MAXIMUM_SIZE = 1000;
+
+    private record Key(String name, Locale locale, String extension) {
+    }
+
+    private final ResourceLoader resourceLoader;
+    private final Cache<Key, MailTemplate> cache = Caffeine.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+
+    public MailTemplates(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    public MailBody render(String name, Map<String, ?> values) {
+        var locale = LocaleContextHolder.getLocale();
+        return new MailBody(
+                get(new Key(name, locale, "html")).render(values),
+                get(new Key(name, locale, "txt")).render(values)
+        );
+    }
+
+    private MailTemplate get(Key key) {
+        var template = cache.getIfPresent(key);
+        if (template == null) {
+            // not cache.get(key, this::compile), which would read the file holding a lock, pinning a virtual thread
+            template = compile(key);
+            cache.put(key, template);
+        }
+        return template;
+    }
+
+    @SneakyThrows
+    private MailTemplate compile(Key key) {
+        for (var candidate : candidates(key.name(), key.locale())) {
+            var resource = resourceLoader.getResource(LOCATION + candidate + "." + key.extension());
+            if (resource.exists()) {
+                var source = resource.getContentAsString(StandardCharsets.UTF_8).stripTrailing();
+                return MailTemplate.compile(source, "html".equals(key.extension()));
+            }
+        }
+        throw new IllegalStateException("No mail template " + key.name() + "." + key.extension());
+    }
+
+    private static List<String> candidates(String name, Locale locale) {
+        var language = locale.getLanguage();
+        var country = locale.getCountry();
+        if (language.isEmpty())
+            return List.of(name);
+        if (country.isEmpty())
+            return List.of(name + "_" + language, name);
+        return List.of(name + "_" + language + "_" + country, name + "_" + language, name);
+    }
+}
@@ -0,0 +1,60 @@
+package com.naturalprogrammer.springmvc.common.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps lock-free token buckets in memory. Idle buckets are dropped, as they'd be full anyway.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final LongSupplier nanoTime;
+
+    public InMemoryRateLimitStore(long maximumKeys, Duration period) {
+        this(maximumKeys, period, System::nanoTime);
+    }
+
+    InMemoryRateLimitStore(long maximumKeys, Duration period, LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(period)
+                .build();
+    }
+
+    @Override
+    public boolean tryConsume(String key, long capacity, Duration period) {
+        return buckets
+                .get(key, k -> new TokenBucket(capacity, nanoTime.getAsLong()))
+                .tryConsume(capacity, period.toNanos(), nanoTime.getAsLong());
+    }
+
+    private static class TokenBucket {
+
+        private record State(double tokens, long refilledAt) {
+        }
+
+        private final AtomicReference<State> state;
+
+        TokenBucket(long capacity, long now) {
+            state = new AtomicReference<>(new State(capacity, now));
+        }
+
+        boolean tryConsume(long capacity, long periodNanos, long now) {
+            while (true) {
+                var current = state.get();
+                var elapsed = Math.max(0, now - current.refilledAt());
+                var tokens = Math.min(capacity, current.tokens() + (double) elapsed * capacity / periodNanos);
+                if (tokens < 1)
+                    return false;
+                if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.refilledAt()))))
+                    return true;
+            }
+        }
+    }
+}
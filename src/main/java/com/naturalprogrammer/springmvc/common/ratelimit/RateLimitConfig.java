@@ -0,0 +1,17 @@
+package com.naturalprogrammer.springmvc.common.ratelimit;
+
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RateLimitStore rateLimitStore(MyProperties properties) {
+        var limits = properties.rateLimit();
+        return new InMemoryRateLimitStore(limits.maximumKeys(), limits.period());
+    }
+}
@@ -0,0 +1,18 @@
+package com.naturalprogrammer.springmvc.common.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Stores the token buckets of {@link RateLimiter}. The default is {@link InMemoryRateLimitStore}, which is per node.
+ * To share the counters across nodes, e.g. using Redis, define another bean of this type.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes a token from the bucket of the given key, which holds at most capacity tokens,
+     * refilled at the rate of capacity tokens per period.
+     *
+     * @return false if the bucket is empty
+     */
+    boolean tryConsume(String key, long capacity, Duration period);
+}
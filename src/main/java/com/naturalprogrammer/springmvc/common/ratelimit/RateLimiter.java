@@ -0,0 +1,67 @@
+package com.naturalprogrammer.springmvc.common.ratelimit;
+
+import com.naturalprogrammer.springmvc.common.CommonUtils;
+import com.naturalprogrammer.springmvc.common.error.Problem;
+import com.naturalprogrammer.springmvc.common.error.ProblemBuilder;
+import com.naturalprogrammer.springmvc.common.error.ProblemType;
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Throttles the unauthenticated, expensive actions (e.g. login) per email and per client IP,
+ * so that they're rejected before any lookup or hashing
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimiter {
+
+    public static final String REJECTED_COUNTER_NAME = "rate.limit.rejected";
+
+    private final RateLimitStore store;
+    private final CommonUtils commonUtils;
+    private final MyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectFactory<ProblemBuilder> problemBuilder;
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>(); // by action and key type
+
+    public Optional<Problem> check(String action, String email) {
+
+        var limits = properties.rateLimit();
+        var clientIp = commonUtils.getClientIp();
+
+        if (clientIp.isPresent() && !store.tryConsume(action + ":ip:" + clientIp.get(), limits.perIp(), limits.period()))
+            return Optional.of(reject(action, "ip", clientIp.get()));
+
+        if (email != null && !store.tryConsume(action + ":email:" + email.toLowerCase(Locale.ROOT), limits.perEmail(), limits.period()))
+            return Optional.of(reject(action, "email", email));
+
+        return Optional.empty();
+    }
+
+    private Problem reject(String action, String keyType, String key) {
+
+        rejectedCounters.computeIfAbsent(action + ":" + keyType, k -> rejectedCounter(action, keyType)).increment();
+
+        log.warn("Rate limit of {} exceeded for {} {}", action, keyType, key);
+        return problemBuilder.getObject().build(ProblemType.TOO_MANY_REQUESTS, "Too many %s attempts".formatted(action));
+    }
+
+    private Counter rejectedCounter(String action, String keyType) {
+        return Counter.builder(REJECTED_COUNTER_NAME)
+                .description("Requests rejected by the rate limiter")
+                .tag("action", action)
+                .tag("key", keyType)
+                .register(meterRegistry);
+    }
+}
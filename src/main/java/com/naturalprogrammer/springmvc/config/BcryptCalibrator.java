@@ -0,0 +1,53 @@
+package com.naturalprogrammer.springmvc.config;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks the highest bcrypt strength whose hashing time fits a latency budget on the current hardware.
+ * Each strength increment doubles the cost, so only the minimum strength is actually measured.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BcryptCalibrator {
+
+    static final int MIN_STRENGTH = 10; // Spring's default; never go below
+    static final int MAX_STRENGTH = 16;
+
+    private static final int MEASUREMENTS = 3;
+
+    public static int calibrate(Duration budget) {
+        return calibrate(budget, BcryptCalibrator::measureNanos);
+    }
+
+    static int calibrate(Duration budget, IntToLongFunction nanosForStrength) {
+
+        var strength = MIN_STRENGTH;
+        var nanos = nanosForStrength.applyAsLong(strength);
+        while (strength < MAX_STRENGTH && nanos * 2 <= budget.toNanos()) {
+            strength++;
+            nanos *= 2;
+        }
+        log.info("Calibrated bcrypt strength {} (~{} ms) for a budget of {}", strength, nanos / 1_000_000, budget);
+        return strength;
+    }
+
+    private static long measureNanos(int strength) {
+
+        var encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode("warm-up");
+
+        var fastest = Long.MAX_VALUE;
+        for (int i = 0; i < MEASUREMENTS; i++) {
+            var start = System.nanoTime();
+            encoder.encode("calibration-" + i);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest;
+    }
+}
@@ -1,23 +1,59 @@
 package com.naturalprogrammer.springmvc.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
 
 @Configuration
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
 public class CommonConfig {
 
+    private static final String BCRYPT_ID = "bcrypt";
+
     @Bean
     public Clock clock() {
         return Clock.systemUTC();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public DateTimeProvider auditingDateTimeProvider(Clock clock) {
+        return () -> Optional.of(clock.instant());
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(MyProperties properties, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(
+                delegatingPasswordEncoder(properties.passwordHashing().budget()),
+                properties.passwordHashing(),
+                meterRegistry
+        );
+    }
+
+    /**
+     * When a budget is configured, encodes using a calibrated bcrypt strength.
+     * Hashes of other strengths or encodings still match, but report upgradeEncoding() as true.
+     */
+    private static PasswordEncoder delegatingPasswordEncoder(Duration budget) {
+
+        if (budget == null)
+            return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+
+        var encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(
+                BCRYPT_ID, new BCryptPasswordEncoder(BcryptCalibrator.calibrate(budget))
+        ));
+        encoder.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        return encoder;
     }
 
 }
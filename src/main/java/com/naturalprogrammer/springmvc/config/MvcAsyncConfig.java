@@ -0,0 +1,40 @@
+package com.naturalprogrammer.springmvc.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Runs the asynchronous request handling, i.e. the user exports, on its own bounded executor,
+ * rather than on the applicationTaskExecutor shared with @Async methods.
+ * Being unordered, this configurer is applied after Spring Boot's, and so overrides its executor.
+ * No default timeout is set here; the exports set their own.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MvcAsyncConfig implements WebMvcConfigurer, AutoCloseable {
+
+    // Not a bean, which would make Spring Boot back off from creating the applicationTaskExecutor
+    private final ThreadPoolTaskExecutor executor;
+
+    public MvcAsyncConfig(MyProperties properties) {
+
+        var threads = properties.userExport().maxConcurrent();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads); // for an export admitted just before the previous one's thread is free
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.initialize();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(executor);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -1,27 +1,53 @@
 package com.naturalprogrammer.springmvc.config;
 
+import com.naturalprogrammer.springmvc.common.jwt.JwsAlgorithm;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
 
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
-import java.util.Base64;
+import java.time.Duration;
+import java.util.List;
 
 @ConfigurationProperties(prefix = "my")
 public record MyProperties(
         String homepage,
         String oauth2AuthenticationSuccessUrl,
         Jws jws,
-        Jwe jwe
+        Jwe jwe,
+        @DefaultValue PrincipalCache principalCache,
+        @DefaultValue JwtCache jwtCache,
+        @DefaultValue PasswordHashing passwordHashing,
+        @DefaultValue RateLimit rateLimit,
+        @DefaultValue KnownEmails knownEmails,
+        @DefaultValue MailCapture mailCapture,
+        @DefaultValue MailOutbox mailOutbox,
+        @DefaultValue SmtpPool smtpPool,
+        @DefaultValue MailKafka mailKafka,
+        @DefaultValue MailCoalescing mailCoalescing,
+        @DefaultValue ClientIp clientIp,
+        @DefaultValue UserExport userExport
 ) {
 
     public record Jws(
             String id,
+            @DefaultValue("RS256") JwsAlgorithm algorithm,
             RSAPublicKey publicKey,
-            RSAPrivateKey privateKey
+            RSAPrivateKey privateKey,
+            Resource jwk,
+            @DefaultValue List<VerificationKey> verificationKeys
     ) {
 
-        public String publicKeyString() {
-            return Base64.getEncoder().encodeToString(publicKey().getEncoded());
+        /**
+         * A public key, e.g. a retired signing key, that's still accepted for verifying tokens
+         */
+        public record VerificationKey(
+                String id,
+                @DefaultValue("RS256") JwsAlgorithm algorithm,
+                RSAPublicKey publicKey,
+                Resource jwk
+        ) {
         }
     }
 
@@ -30,4 +56,91 @@ public record MyProperties(
             String key
     ) {
     }
+
+    public record PrincipalCache(
+            @DefaultValue("10000") long maximumSize,
+            @DefaultValue("5m") Duration timeToLive,
+            @DefaultValue("false") boolean kafkaRevocation
+    ) {
+    }
+
+    public record JwtCache(
+            @DefaultValue("10000") long maximumSize
+    ) {
+    }
+
+    public record PasswordHashing(
+            @DefaultValue("0") int threads, // 0 means the number of processors
+            @DefaultValue("100") int queueCapacity,
+            Duration budget // calibrates the bcrypt strength to it, if given
+    ) {
+    }
+
+    public record RateLimit(
+            @DefaultValue("10") long perEmail, // attempts per period
+            @DefaultValue("100") long perIp,
+            @DefaultValue("1m") Duration period,
+            @DefaultValue("100000") long maximumKeys
+    ) {
+    }
+
+    public record ClientIp(
+            @DefaultValue List<String> trustedProxies // IPs or CIDR ranges
+    ) {
+    }
+
+    public record KnownEmails(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("false") boolean kafkaPropagation,
+            @DefaultValue("1000000") long expectedEmails, // sizes the Bloom filter
+            @DefaultValue("0.01") double falsePositiveRate,
+            @DefaultValue("15m") Duration rebuildInterval // also bounds how long a missed propagation lasts
+    ) {
+    }
+
+    public record MailCapture(
+            @DefaultValue("100") int capacity // of the recent mails kept by LoggingMailSender
+    ) {
+    }
+
+    public record MailOutbox(
+            @DefaultValue("true") boolean polling,
+            @DefaultValue("1s") Duration pollInterval,
+            @DefaultValue("1h") Duration purgeInterval,
+            @DefaultValue("50") int batchSize,
+            @DefaultValue("10") int maxAttempts,
+            @DefaultValue("10s") Duration retryBackoff, // doubled on every retry
+            @DefaultValue("7d") Duration retention, // of the sent and abandoned mails
+            @DefaultValue("5m") Duration lease // how long a claimed batch is left to its dispatcher
+    ) {
+    }
+
+    public record SmtpPool(
+            @DefaultValue("4") int maxConnections, // also the parallelism of sending a batch
+            @DefaultValue("1m") Duration maxIdle, // SMTP servers drop idle connections after a few minutes
+            @DefaultValue("30s") Duration borrowTimeout
+    ) {
+    }
+
+    public record MailKafka(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("6") int partitions, // the most consumers that can send in parallel, across the nodes
+            @DefaultValue("1") int concurrency, // consumers per node
+            @DefaultValue("30s") Duration sendTimeout, // for publishing a batch
+            @DefaultValue("5") int maxAttempts, // before publishing to the dead letter topic
+            @DefaultValue("1s") Duration retryBackoff // doubled on every retry
+    ) {
+    }
+
+    public record MailCoalescing(
+            @DefaultValue("5m") Duration window, // a repeated mail within it isn't sent
+            @DefaultValue("100000") long maximumKeys
+    ) {
+    }
+
+    public record UserExport(
+            @DefaultValue("2") int maxConcurrent, // per node; each holds a database connection throughout
+            @DefaultValue("30m") Duration timeout
+    ) {
+    }
 }
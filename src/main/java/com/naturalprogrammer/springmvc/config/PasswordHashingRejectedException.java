@@ -0,0 +1,11 @@
+package com.naturalprogrammer.springmvc.config;
+
+/**
+ * Thrown when the password hashing executor is saturated
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(Throwable cause) {
+        super("Too many password hashing requests in the queue", cause);
+    }
+}
@@ -0,0 +1,87 @@
+package com.naturalprogrammer.springmvc.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.SneakyThrows;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the already verified bearer tokens, so that a token reused by a client
+ * isn't parsed and signature-verified again on every request.
+ * Entries are keyed by the SHA-256 digest of the token, and expire when the token expires.
+ * Failed verifications aren't cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    public static final String CACHE_NAME = "verified-jwts";
+    public static final String VERIFY_TIMER_NAME = "jwt.verify";
+
+    private final JwtDecoder delegate;
+    private final Clock clock;
+    private final Cache<String, Jwt> cache;
+    private final Timer verifyTimer;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Clock clock, MeterRegistry meterRegistry) {
+
+        this.delegate = delegate;
+        this.clock = clock;
+
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        verifyTimer = Timer.builder(VERIFY_TIMER_NAME)
+                .description("Time taken to parse and verify a JWT that wasn't cached")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return cache.get(digest(token), key -> verifyTimer.record(() -> delegate.decode(token)));
+    }
+
+    @SneakyThrows
+    private static String digest(String token) {
+        var hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    private class TokenExpiry implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            var expiresAt = jwt.getExpiresAt();
+            if (expiresAt == null)
+                return 0;
+            var millisLeft = Duration.between(clock.instant(), expiresAt).toMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft)); // saturates instead of overflowing
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
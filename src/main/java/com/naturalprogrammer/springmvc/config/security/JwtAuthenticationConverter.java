@@ -1,8 +1,9 @@
 package com.naturalprogrammer.springmvc.config.security;
 
 
-import com.naturalprogrammer.springmvc.user.domain.User;
-import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import com.naturalprogrammer.springmvc.user.domain.Role;
+import com.naturalprogrammer.springmvc.user.services.UserPrincipal;
+import com.naturalprogrammer.springmvc.user.services.UserPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.convert.converter.Converter;
@@ -10,15 +11,13 @@ import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.authentication.AccountExpiredException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.naturalprogrammer.springmvc.common.jwt.JwtPurpose.AUTH;
 import static com.naturalprogrammer.springmvc.common.jwt.JwtPurpose.PURPOSE;
@@ -30,7 +29,11 @@ import static org.springframework.security.oauth2.core.OAuth2TokenIntrospectionC
 @RequiredArgsConstructor
 public class JwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
 
-    private final UserRepository userRepository;
+    // Scopes are few, e.g. "normal", as they come from tokens issued by us
+    private static final int MAX_CACHED_SCOPES = 100;
+
+    private final UserPrincipalCache userPrincipalCache;
+    private final Map<String, List<GrantedAuthority>[]> authoritiesByScope = new ConcurrentHashMap<>();
 
     @Override
     public AbstractAuthenticationToken convert(Jwt jwt) {
@@ -46,30 +49,57 @@ public class JwtAuthenticationConverter implements Converter<Jwt, AbstractAuthen
         var userIdStr = jwt.getSubject();
         var userId = UUID.fromString(userIdStr);
 
-        var user = userRepository.findById(userId).orElseThrow(() -> {
+        var user = userPrincipalCache.get(userId).orElseThrow(() -> {
             log.warn("User {} not found while logging in with JWT {}", userIdStr, jwt);
             return new AccountExpiredException("User %s not found".formatted(userIdStr));
         });
 
-        var obsoleteToken = user.getTokensValidFrom().isAfter(requireNonNull(jwt.getIssuedAt()));
+        var obsoleteToken = user.tokensValidFrom().isAfter(requireNonNull(jwt.getIssuedAt()));
         if (obsoleteToken) {
             log.warn("Obsolete token {} used for user {}", jwt, user);
             throw new CredentialsExpiredException("Obsolete token used for user %s".formatted(userIdStr));
         }
 
-        var authorities = getAuthorities(user);
-
         var scope = jwt.getClaimAsString(SCOPE); // e.g. "openid email profile"
-        if (scope != null)
-            authorities.addAll(getScopes(scope));
+        return new JwtAuthenticationToken(jwt, getAuthorities(user, scope), userIdStr);
+    }
+
+    public List<GrantedAuthority> getAuthorities(UserPrincipal user) {
+        return RoleAuthorities.of(user.roleMask());
+    }
+
+    /**
+     * The authorities of the roles and the scope, shared by the requests having the same ones
+     */
+    private List<GrantedAuthority> getAuthorities(UserPrincipal user, String scope) {
+
+        if (scope == null)
+            return getAuthorities(user);
+
+        var byMask = authoritiesByScope.get(scope);
+        if (byMask == null) {
+            if (authoritiesByScope.size() >= MAX_CACHED_SCOPES)
+                return withScopes(user.roleMask(), scope);
+            byMask = authoritiesByScope.computeIfAbsent(scope, s -> newAuthoritiesByMask());
+        }
+
+        var authorities = byMask[user.roleMask()];
+        if (authorities == null) { // racing threads build equal lists
+            authorities = withScopes(user.roleMask(), scope);
+            byMask[user.roleMask()] = authorities;
+        }
+        return authorities;
+    }
 
-        return new JwtAuthenticationToken(jwt, authorities, userIdStr);
+    private List<GrantedAuthority> withScopes(int roleMask, String scope) {
+        var authorities = new ArrayList<GrantedAuthority>(RoleAuthorities.of(roleMask));
+        authorities.addAll(getScopes(scope));
+        return List.copyOf(authorities);
     }
 
-    public Collection<SimpleGrantedAuthority> getAuthorities(User user) {
-        return user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
-                .collect(Collectors.toCollection(ArrayList::new));
+    @SuppressWarnings("unchecked")
+    private static List<GrantedAuthority>[] newAuthoritiesByMask() {
+        return (List<GrantedAuthority>[]) new List[1 << Role.values().length];
     }
 
     private Collection<SimpleGrantedAuthority> getScopes(String scopes) {
@@ -0,0 +1,60 @@
+package com.naturalprogrammer.springmvc.config.security;
+
+import com.naturalprogrammer.springmvc.user.domain.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The authorities of every combination of roles, built once and indexed by the role mask,
+ * so that authenticating a request doesn't create them again
+ */
+public final class RoleAuthorities {
+
+    private static final Role[] ROLES = Role.values();
+    private static final List<GrantedAuthority>[] BY_MASK = byMask();
+
+    private RoleAuthorities() {
+    }
+
+    /**
+     * @return an immutable list, shared by all the callers
+     */
+    public static List<GrantedAuthority> of(int roleMask) {
+        return BY_MASK[roleMask];
+    }
+
+    /**
+     * The mask of the roles among the given authorities, ignoring the others, e.g. scopes
+     */
+    public static int mask(Collection<? extends GrantedAuthority> authorities) {
+        var mask = 0;
+        for (var authority : authorities) {
+            var role = Role.ofAuthority(authority.getAuthority());
+            if (role != null)
+                mask |= role.mask();
+        }
+        return mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<GrantedAuthority>[] byMask() {
+
+        var authorities = new GrantedAuthority[ROLES.length];
+        for (var role : ROLES)
+            authorities[role.ordinal()] = new SimpleGrantedAuthority(role.authority());
+
+        var byMask = (List<GrantedAuthority>[]) new List[1 << ROLES.length];
+        for (int mask = 0; mask < byMask.length; mask++) {
+            var list = new ArrayList<GrantedAuthority>(Integer.bitCount(mask));
+            for (var role : ROLES)
+                if ((mask & role.mask()) != 0)
+                    list.add(authorities[role.ordinal()]);
+            byMask[mask] = List.copyOf(list);
+        }
+        return byMask;
+    }
+}
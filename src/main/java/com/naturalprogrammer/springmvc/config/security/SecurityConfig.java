@@ -1,10 +1,15 @@
 package com.naturalprogrammer.springmvc.config.security;
 
+import com.naturalprogrammer.springmvc.common.jwt.JwsDecoder;
+import com.naturalprogrammer.springmvc.common.jwt.JwsService;
+import com.naturalprogrammer.springmvc.common.mail.SentMailsEndpoint;
 import com.naturalprogrammer.springmvc.config.MyProperties;
 import com.naturalprogrammer.springmvc.config.sociallogin.*;
 import com.naturalprogrammer.springmvc.user.domain.Role;
-import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import com.naturalprogrammer.springmvc.user.services.UserPrincipalCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
@@ -13,13 +18,14 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.context.NullSecurityContextRepository;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Clock;
+
 import static com.naturalprogrammer.springmvc.common.Path.*;
 import static com.naturalprogrammer.springmvc.user.features.login.AuthScope.*;
 import static jakarta.servlet.DispatcherType.ERROR;
@@ -32,10 +38,13 @@ import static org.springframework.security.authorization.AuthorizationManagers.a
 public class SecurityConfig {
 
     private final MyProperties properties;
-    private final UserRepository userRepository;
+    private final JwsService jwsService;
+    private final UserPrincipalCache userPrincipalCache;
     private final OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler;
     private final MyOidcUserService oidcUserService;
     private final MyOAuth2UserService oauth2UserService;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -46,8 +55,8 @@ public class SecurityConfig {
                 .securityContext(customizer -> customizer.securityContextRepository(new NullSecurityContextRepository()))
                 .sessionManagement(configurer -> configurer.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .oauth2ResourceServer(configurer -> configurer.jwt(customizer -> customizer
-                        .decoder(jwtDecoder(properties))
-                        .jwtAuthenticationConverter(new JwtAuthenticationConverter(userRepository))
+                        .decoder(jwtDecoder())
+                        .jwtAuthenticationConverter(new JwtAuthenticationConverter(userPrincipalCache))
                 ))
                 .oauth2Login(oauth2Login -> {
                     oauth2Login.authorizationEndpoint(endpoint ->
@@ -77,9 +86,11 @@ public class SecurityConfig {
                                 .requestMatchers(PATCH, USER + "/password").hasAuthority(NORMAL.scope())
                                 .requestMatchers(POST, USER + "/email-change-request").hasAuthority(NORMAL.scope())
                                 .requestMatchers(PATCH, USER + "/email-change-request").hasAuthority(NORMAL.scope())
+                                .requestMatchers(EndpointRequest.to(SentMailsEndpoint.ID)).access(isAdmin())
                                 .requestMatchers(GET,
                                         "/",
                                         "/context",
+                                        JWKS,
                                         "/index.html",
                                         "/oauth2/authorization/google",
                                         "/login/oauth2/code/google",
@@ -94,8 +105,13 @@ public class SecurityConfig {
                 ).build();
     }
 
-    private JwtDecoder jwtDecoder(MyProperties properties) {
-        return NimbusJwtDecoder.withPublicKey(properties.jws().publicKey()).build();
+    private JwtDecoder jwtDecoder() {
+        return new CachingJwtDecoder(
+                new JwsDecoder(jwsService),
+                properties.jwtCache().maximumSize(),
+                clock,
+                meterRegistry
+        );
     }
 
     @Bean
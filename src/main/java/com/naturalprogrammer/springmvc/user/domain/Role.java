@@ -1,12 +1,47 @@
 package com.naturalprogrammer.springmvc.user.domain;
 
+import java.util.Collection;
+
 public enum Role {
     CUSTOMER, // Business user
     ADMIN, // Admin
     UNVERIFIED, // Email unverified
     VERIFIED; // Verified
 
+    private static final Role[] VALUES = values();
+    private static final int ADMIN_MASK = ADMIN.mask() | VERIFIED.mask();
+
+    private final String authority = "ROLE_" + name();
+
     public String authority() {
-        return "ROLE_" + name();
+        return authority;
+    }
+
+    /**
+     * A bit of the role mask, which represents a set of roles in an int
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    public static int mask(Collection<Role> roles) {
+        var mask = 0;
+        for (var role : roles)
+            mask |= role.mask();
+        return mask;
+    }
+
+    /**
+     * @return null if the authority isn't of a role, e.g. it's a scope
+     */
+    public static Role ofAuthority(String authority) {
+        for (var role : VALUES)
+            if (role.authority.equals(authority))
+                return role;
+        return null;
+    }
+
+    public static boolean isAdmin(int mask) {
+        return (mask & ADMIN_MASK) == ADMIN_MASK;
     }
 }
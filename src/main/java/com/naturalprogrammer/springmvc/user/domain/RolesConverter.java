@@ -0,0 +1,46 @@
+package com.naturalprogrammer.springmvc.user.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Maps the roles to the usr.roles TEXT[] column, read in the same row as the user,
+ * into an EnumSet, which is a single bitmask word
+ */
+@Converter
+public class RolesConverter implements AttributeConverter<Set<Role>, String[]> {
+
+    private static final Role[] ROLES = Role.values();
+
+    @Override
+    public String[] convertToDatabaseColumn(Set<Role> roles) {
+        if (roles == null)
+            return null;
+        var names = new String[roles.size()];
+        var i = 0;
+        for (var role : roles)
+            names[i++] = role.name();
+        return names;
+    }
+
+    @Override
+    public Set<Role> convertToEntityAttribute(String[] names) {
+        if (names == null)
+            return null;
+        var roles = EnumSet.noneOf(Role.class);
+        for (var name : names)
+            roles.add(valueOf(name));
+        return roles;
+    }
+
+    // Role.valueOf, without its map lookup
+    private static Role valueOf(String name) {
+        for (var role : ROLES)
+            if (role.name().equals(name))
+                return role;
+        throw new IllegalArgumentException("Unknown role " + name);
+    }
+}
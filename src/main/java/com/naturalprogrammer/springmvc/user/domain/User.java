@@ -1,5 +1,6 @@
 package com.naturalprogrammer.springmvc.user.domain;
 
+import com.naturalprogrammer.springmvc.user.services.KnownEmailListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -8,13 +9,13 @@ import lombok.ToString;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.HashSet;
-import java.util.List;
+import java.util.EnumSet;
 import java.util.Locale;
 import java.util.Set;
 
 @Entity
 @Table(name = "usr")
+@EntityListeners(KnownEmailListener.class)
 @Getter
 @Setter
 @ToString(callSuper = true)
@@ -39,8 +40,9 @@ public class User extends AbstractEntity {
     @Column
     private Locale locale;
 
-    @Enumerated(EnumType.STRING)
-    private Set<Role> roles = new HashSet<>();
+    @Convert(converter = RolesConverter.class)
+    @Column(nullable = false, columnDefinition = "text[]")
+    private Set<Role> roles = EnumSet.noneOf(Role.class);
 
     @Column(length = EMAIL_MAX)
     private String newEmail;
@@ -49,12 +51,19 @@ public class User extends AbstractEntity {
     @Column(nullable = false)
     private Instant tokensValidFrom;
 
+    public void setRoles(Set<Role> roles) {
+        this.roles = roles.isEmpty() ? EnumSet.noneOf(Role.class) : EnumSet.copyOf(roles);
+    }
+
     public boolean hasRoles(Role... roles) {
-        return this.roles.containsAll(List.of(roles));
+        for (var role : roles)
+            if (!this.roles.contains(role))
+                return false;
+        return true;
     }
 
     public boolean isAdmin() {
-        return hasRoles(Role.ADMIN, Role.VERIFIED);
+        return roles.contains(Role.ADMIN) && roles.contains(Role.VERIFIED);
     }
 
     public void resetTokensValidFrom(Clock clock) {
@@ -5,7 +5,8 @@ import com.naturalprogrammer.springmvc.common.MessageGetter;
 import com.naturalprogrammer.springmvc.common.error.*;
 import com.naturalprogrammer.springmvc.common.jwt.JweService;
 import com.naturalprogrammer.springmvc.common.mail.MailData;
-import com.naturalprogrammer.springmvc.common.mail.MailSender;
+import com.naturalprogrammer.springmvc.common.mail.template.MailTemplates;
+import com.naturalprogrammer.springmvc.common.mail.outbox.MailOutbox;
 import com.naturalprogrammer.springmvc.config.MyProperties;
 import com.naturalprogrammer.springmvc.user.domain.User;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
@@ -14,6 +15,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Clock;
 import java.time.temporal.ChronoUnit;
@@ -58,6 +60,7 @@ class ValidatedEmailChangeRequestProcessor {
     private final ObjectFactory<ProblemBuilder> problemBuilder;
     private final PasswordEncoder passwordEncoder;
     private final NewEmailVerificationMailSender newEmailVerificationMailSender;
+    private final TransactionTemplate transactionTemplate;
 
     public Optional<Problem> process(UUID userId, UserEmailChangeRequest request) {
         var user = userRepository.findById(userId).orElseThrow();
@@ -86,8 +89,10 @@ class ValidatedEmailChangeRequestProcessor {
         }
 
         user.setNewEmail(request.newEmail());
-        newEmailVerificationMailSender.send(user);
-        userRepository.save(user);
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.save(user);
+            newEmailVerificationMailSender.send(user);
+        });
 
         log.info("Processed email change request user {}: {}", user, request);
         return Optional.empty();
@@ -98,22 +103,30 @@ class ValidatedEmailChangeRequestProcessor {
 @RequiredArgsConstructor
 class NewEmailVerificationMailSender {
 
+    public static final String EMAIL_CHANGE_MAIL_KEY_PREFIX = "email-change:";
+
     private final JweService jweService;
     private final Clock clock;
     private final MessageGetter messageGetter;
-    private final MailSender mailSender;
+    private final MailTemplates mailTemplates;
+    private final MailOutbox mailOutbox;
     private final MyProperties properties;
 
     public void send(User user) {
         var verificationToken = createVerificationToken(user);
+        var body = mailTemplates.render("verification", Map.of(
+                "name", user.getDisplayName(),
+                "homepage", properties.homepage(),
+                "token", verificationToken
+        ));
         var mail = new MailData(
                 user.getNewEmail(),
                 messageGetter.getMessage("verification-mail-subject"),
-                messageGetter.getMessage("verification-mail-body",
-                        user.getDisplayName(), properties.homepage(), verificationToken),
+                body.html(),
+                body.text(),
                 null
         );
-        mailSender.send(mail);
+        mailOutbox.enqueue(EMAIL_CHANGE_MAIL_KEY_PREFIX + user.getId() + ":" + user.getNewEmail(), mail);
     }
 
     private String createVerificationToken(User user) {
@@ -5,6 +5,7 @@ import com.naturalprogrammer.springmvc.common.error.*;
 import com.naturalprogrammer.springmvc.common.jwt.JweService;
 import com.naturalprogrammer.springmvc.user.domain.User;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import com.naturalprogrammer.springmvc.user.services.UserPrincipalCache;
 import com.nimbusds.jwt.JWTClaimsSet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -49,6 +50,7 @@ class ValidatedEmailChanger {
     private final JweService jweService;
     private final ObjectFactory<ProblemBuilder> problemBuilder;
     private final Clock clock;
+    private final UserPrincipalCache userPrincipalCache;
 
     public Optional<Problem> changeEmail(UUID userId, UserEmailChangeVerificationRequest request) {
 
@@ -84,6 +86,7 @@ class ValidatedEmailChanger {
         user.setNewEmail(null);
         user.resetTokensValidFrom(clock);
         userRepository.save(user);
+        userPrincipalCache.evict(user.getId());
         return Optional.empty();
     }
 }
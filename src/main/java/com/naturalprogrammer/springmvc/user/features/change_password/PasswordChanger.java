@@ -3,6 +3,7 @@ package com.naturalprogrammer.springmvc.user.features.change_password;
 import com.naturalprogrammer.springmvc.common.CommonUtils;
 import com.naturalprogrammer.springmvc.common.error.*;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import com.naturalprogrammer.springmvc.user.services.UserPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectFactory;
@@ -24,6 +25,7 @@ public class PasswordChanger {
     private final PasswordEncoder passwordEncoder;
     private final ObjectFactory<ProblemBuilder> problemBuilder;
     private final Clock clock;
+    private final UserPrincipalCache userPrincipalCache;
 
     public Optional<Problem> changePassword(ChangePasswordRequest request) {
 
@@ -50,6 +52,7 @@ public class PasswordChanger {
         user.setPassword(passwordEncoder.encode(request.newPassword()));
         user.resetTokensValidFrom(clock);
         userRepository.save(user);
+        userPrincipalCache.evict(userId);
         return Optional.empty();
     }
 }
@@ -5,10 +5,13 @@ import com.naturalprogrammer.springmvc.common.error.BeanValidator;
 import com.naturalprogrammer.springmvc.common.error.Problem;
 import com.naturalprogrammer.springmvc.common.jwt.JweService;
 import com.naturalprogrammer.springmvc.common.mail.MailData;
-import com.naturalprogrammer.springmvc.common.mail.MailSender;
+import com.naturalprogrammer.springmvc.common.mail.template.MailTemplates;
+import com.naturalprogrammer.springmvc.common.mail.outbox.MailOutbox;
+import com.naturalprogrammer.springmvc.common.ratelimit.RateLimiter;
 import com.naturalprogrammer.springmvc.config.MyProperties;
 import com.naturalprogrammer.springmvc.user.domain.User;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import com.naturalprogrammer.springmvc.user.services.KnownEmailFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -28,9 +31,13 @@ import static org.springframework.security.oauth2.core.oidc.StandardClaimNames.E
 @RequiredArgsConstructor
 class ForgotPasswordInitiator {
 
+    private static final String FORGOT_PASSWORD_ACTION = "forgot-password";
+
     private final BeanValidator validator;
     private final UserRepository userRepository;
     private final ForgotPasswordMailSender forgotPasswordMailSender;
+    private final RateLimiter rateLimiter;
+    private final KnownEmailFilter knownEmailFilter;
 
     public Optional<Problem> initiate(ForgotPasswordRequest request) {
 
@@ -38,6 +45,7 @@ class ForgotPasswordInitiator {
         var trimmedRequest = request.trimmed();
         return validator
                 .validate(trimmedRequest)
+                .or(() -> rateLimiter.check(FORGOT_PASSWORD_ACTION, trimmedRequest.email()))
                 .or(() -> {
                     initiateValidated(trimmedRequest);
                     return Optional.empty();
@@ -45,11 +53,12 @@ class ForgotPasswordInitiator {
     }
 
     private void initiateValidated(ForgotPasswordRequest request) {
-        userRepository
-                .findByEmail(request.email())
-                .ifPresentOrElse(forgotPasswordMailSender::send, () ->
-                        log.warn("User {} not found while sending forgot password link", request)
-                );
+        var user = knownEmailFilter.mightExist(request.email())
+                ? userRepository.findByEmail(request.email())
+                : Optional.<User>empty();
+        user.ifPresentOrElse(forgotPasswordMailSender::send, () ->
+                log.warn("User {} not found while sending forgot password link", request)
+        );
     }
 }
 
@@ -59,23 +68,30 @@ class ForgotPasswordInitiator {
 class ForgotPasswordMailSender {
 
     public static final long FORGOT_PASSWORD_TOKEN_VALID_DAYS = 1;
+    public static final String FORGOT_PASSWORD_MAIL_KEY_PREFIX = "forgot-password:";
 
-    private final MailSender mailSender;
+    private final MailOutbox mailOutbox;
     private final MessageGetter messageGetter;
+    private final MailTemplates mailTemplates;
     private final JweService jweService;
     private final Clock clock;
     private final MyProperties properties;
 
     public void send(User user) {
         var token = createForgotPasswordToken(user);
+        var body = mailTemplates.render("forgot-password", Map.of(
+                "name", user.getDisplayName(),
+                "homepage", properties.homepage(),
+                "token", token
+        ));
         var mail = new MailData(
                 user.getEmail(),
                 messageGetter.getMessage("forgot-password-mail-subject"),
-                messageGetter.getMessage("forgot-password-mail-body",
-                        user.getDisplayName(), properties.homepage(), token),
+                body.html(),
+                body.text(),
                 null
         );
-        mailSender.send(mail);
+        mailOutbox.enqueue(FORGOT_PASSWORD_MAIL_KEY_PREFIX + user.getId(), mail);
     }
 
     private String createForgotPasswordToken(User user) {
@@ -1,8 +1,8 @@
 package com.naturalprogrammer.springmvc.user.features.get;
 
 import com.naturalprogrammer.springmvc.common.error.Problem;
-import com.naturalprogrammer.springmvc.user.domain.User;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import com.naturalprogrammer.springmvc.user.repositories.UserView;
 import com.naturalprogrammer.springmvc.user.services.UserResource;
 import com.naturalprogrammer.springmvc.user.services.UserService;
 import io.jbock.util.Either;
@@ -27,7 +27,7 @@ class UserGetter {
             return Either.left(userService.userNotFound(userId));
         }
 
-        return userRepository.findById(userId)
+        return userRepository.findViewById(userId)
                 .map(this::getUserResponse)
                 .orElseGet(() -> {
                     log.warn("User {} not found when trying get user", userId);
@@ -35,7 +35,7 @@ class UserGetter {
                 });
     }
 
-    private Either<Problem, UserResource> getUserResponse(User user) {
+    private Either<Problem, UserResource> getUserResponse(UserView user) {
         var response = userService.toResource(user);
         log.info("Got {}", response);
         return Either.right(response);
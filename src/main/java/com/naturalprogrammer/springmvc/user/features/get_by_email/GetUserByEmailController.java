@@ -38,7 +38,7 @@ class GetUserByEmailController {
                     )
             )
     })
-    @GetMapping(produces = UserResource.LIST_TYPE)
+    @GetMapping(params = "email", produces = UserResource.LIST_TYPE)
     List<UserResource> getUsers(@RequestParam String email) {
         return usersGetter.getBy(email);
     }
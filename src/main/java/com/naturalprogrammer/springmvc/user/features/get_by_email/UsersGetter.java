@@ -20,7 +20,7 @@ class UsersGetter {
     public List<UserResource> getBy(String email) {
 
         var users = userRepository
-                .findByEmail(email)
+                .findViewByEmail(email)
                 .stream()
                 .map(userService::toResource)
                 .toList();
@@ -0,0 +1,79 @@
+package com.naturalprogrammer.springmvc.user.features.list;
+
+import com.naturalprogrammer.springmvc.common.error.Problem;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.UUID;
+
+import static com.naturalprogrammer.springmvc.common.Path.USERS;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(USERS)
+@Tag(name = "User", description = "User API")
+class ListUsersController {
+
+    static final String CSV_TYPE = "text/csv";
+
+    private final UserLister userLister;
+    private final UserExporter userExporter;
+
+    @Operation(summary = "List users, a page at a time")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "A page of users",
+                    content = @Content(
+                            mediaType = UsersPage.CONTENT_TYPE,
+                            schema = @Schema(implementation = UsersPage.class)
+                    )
+            )
+    })
+    @GetMapping(params = {"!email", "!format"}, produces = UsersPage.CONTENT_TYPE)
+    UsersPage listUsers(
+            UsersFilter filter,
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return userLister.page(filter, after, limit);
+    }
+
+    @Operation(summary = "Export the users as newline delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "429", description = "Too many exports running",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE,
+                            schema = @Schema(implementation = Problem.class))
+            )
+    })
+    @GetMapping(params = {"!email", "format=ndjson"}, produces = APPLICATION_NDJSON_VALUE)
+    WebAsyncTask<Void> exportNdjson(UsersFilter filter, HttpServletResponse response) {
+        return userExporter.export(response, APPLICATION_NDJSON_VALUE, "users.ndjson",
+                out -> userLister.writeNdjson(filter, out));
+    }
+
+    @Operation(summary = "Export the users as CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "429", description = "Too many exports running",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_PROBLEM_JSON_VALUE,
+                            schema = @Schema(implementation = Problem.class))
+            )
+    })
+    @GetMapping(params = {"!email", "format=csv"}, produces = CSV_TYPE)
+    WebAsyncTask<Void> exportCsv(UsersFilter filter, HttpServletResponse response) {
+        return userExporter.export(response, CSV_TYPE, "users.csv",
+                out -> userLister.writeCsv(filter, out));
+    }
+}
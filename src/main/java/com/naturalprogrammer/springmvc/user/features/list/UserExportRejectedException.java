@@ -0,0 +1,11 @@
+package com.naturalprogrammer.springmvc.user.features.list;
+
+/**
+ * Thrown when the maximum number of user exports are already running
+ */
+public class UserExportRejectedException extends RuntimeException {
+
+    public UserExportRejectedException(int maxConcurrent) {
+        super("Already running the maximum of %d user exports".formatted(maxConcurrent));
+    }
+}
@@ -0,0 +1,71 @@
+package com.naturalprogrammer.springmvc.user.features.list;
+
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
+
+/**
+ * Runs the user exports on the asynchronous request executor (see MvcAsyncConfig), with their own timeout.
+ * As each export holds a database connection until it's written the whole table,
+ * at most my.user-export.max-concurrent run at a time; more are rejected with a {@link UserExportRejectedException}.
+ */
+@Slf4j
+@Component
+class UserExporter {
+
+    private final int maxConcurrent;
+    private final long timeoutMillis;
+    private final Semaphore permits;
+
+    public UserExporter(MyProperties properties) {
+
+        var config = properties.userExport();
+        maxConcurrent = config.maxConcurrent();
+        timeoutMillis = config.timeout().toMillis();
+        permits = new Semaphore(maxConcurrent);
+    }
+
+    public WebAsyncTask<Void> export(HttpServletResponse response, String contentType, String filename, Export export) {
+
+        if (!permits.tryAcquire()) {
+            log.warn("Rejecting {}, as {} exports are already running", filename, maxConcurrent);
+            throw new UserExportRejectedException(maxConcurrent);
+        }
+
+        response.setContentType(contentType);
+        response.setHeader(CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString());
+
+        // The permit is released by the export, or on completion if the export never started, e.g. timed out in the queue
+        var claimed = new AtomicBoolean();
+        var task = new WebAsyncTask<Void>(timeoutMillis, () -> {
+            if (!claimed.compareAndSet(false, true))
+                return null;
+            try {
+                export.writeTo(response.getOutputStream());
+                return null;
+            } finally {
+                permits.release();
+            }
+        });
+        task.onCompletion(() -> {
+            if (claimed.compareAndSet(false, true))
+                permits.release();
+        });
+        return task;
+    }
+
+    @FunctionalInterface
+    interface Export {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
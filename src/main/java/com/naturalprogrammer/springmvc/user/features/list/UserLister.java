@@ -0,0 +1,212 @@
+package com.naturalprogrammer.springmvc.user.features.list;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.naturalprogrammer.springmvc.user.domain.Role;
+import com.naturalprogrammer.springmvc.user.domain.RolesConverter;
+import com.naturalprogrammer.springmvc.user.services.UserResource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Lists users straight from usr over JDBC, without loading the entities.
+ * Pages are keyset ones on the primary key, so a page costs the same however deep it is.
+ * Exports read the whole result through a forward-only cursor, fetching EXPORT_FETCH_SIZE rows at a time,
+ * and write each row out as soon as it's read, so the memory used doesn't grow with the table.
+ */
+@Slf4j
+@Service
+class UserLister {
+
+    static final int MAX_LIMIT = 500;
+    static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final String SELECT = "SELECT id, email, display_name, locale, roles FROM usr";
+    private static final String CSV_HEADER = "id,email,displayName,locale,roles\r\n";
+
+    private static final RolesConverter ROLES_CONVERTER = new RolesConverter();
+
+    private final NamedParameterJdbcTemplate pageJdbc;
+    private final NamedParameterJdbcTemplate exportJdbc;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter ndjsonWriter;
+
+    public UserLister(DataSource dataSource, PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+
+        pageJdbc = new NamedParameterJdbcTemplate(dataSource);
+
+        // PostgreSQL streams with a cursor only when a fetch size is set and auto-commit is off
+        var exportTemplate = new JdbcTemplate(dataSource);
+        exportTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+        exportJdbc = new NamedParameterJdbcTemplate(exportTemplate);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        ndjsonWriter = objectMapper
+                .writerFor(UserResource.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public UsersPage page(UsersFilter filter, UUID after, int limit) {
+
+        limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        var params = new MapSqlParameterSource("limit", limit + 1); // one more, to know if there's a next page
+        var sql = SELECT + where(filter, after, params) + " ORDER BY id LIMIT :limit";
+
+        var users = pageJdbc.query(sql, params, (rs, rowNum) -> toResource(rs));
+        UUID next = null;
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+            next = users.get(limit - 1).id();
+        }
+
+        log.info("Listed {} users with {} after {}", users.size(), filter, after);
+        return new UsersPage(users, next);
+    }
+
+    public void writeNdjson(UsersFilter filter, OutputStream out) throws IOException {
+
+        var generator = ndjsonWriter.createGenerator(out);
+        generator.setRootValueSeparator(null); // we write the newlines
+        export(filter, user -> {
+            ndjsonWriter.writeValue(generator, user);
+            generator.writeRaw('\n');
+        });
+        generator.flush();
+    }
+
+    public void writeCsv(UsersFilter filter, OutputStream out) throws IOException {
+
+        var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        export(filter, user -> {
+            writer.write(user.id().toString());
+            writer.write(',');
+            writeCsvField(writer, user.email());
+            writer.write(',');
+            writeCsvField(writer, user.displayName());
+            writer.write(',');
+            writer.write(user.locale());
+            writer.write(',');
+            var first = true;
+            for (var role : user.roles()) {
+                if (!first)
+                    writer.write(' ');
+                writer.write(role.name());
+                first = false;
+            }
+            writer.write("\r\n");
+        });
+        writer.flush();
+    }
+
+    private void export(UsersFilter filter, RowWriter writer) throws IOException {
+
+        var params = new MapSqlParameterSource();
+        var sql = SELECT + where(filter, null, params) + " ORDER BY id";
+        var count = new long[1];
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> exportJdbc.query(sql, params, rs -> {
+                try {
+                    writer.write(toResource(rs));
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            log.warn("Export of users with {} aborted after {} rows", filter, count[0]);
+            throw e.getCause(); // mostly the client going away
+        }
+        log.info("Exported {} users with {}", count[0], filter);
+    }
+
+    private static String where(UsersFilter filter, UUID after, MapSqlParameterSource params) {
+
+        var conditions = new ArrayList<String>();
+        if (after != null) {
+            conditions.add("id > :after");
+            params.addValue("after", after);
+        }
+        if (filter.role() != null) {
+            conditions.add(":role = ANY(roles)");
+            params.addValue("role", filter.role().name());
+        }
+        if (filter.verified() != null) {
+            conditions.add(filter.verified() ? ":verified = ANY(roles)" : "NOT (:verified = ANY(roles))");
+            params.addValue("verified", Role.VERIFIED.name());
+        }
+        if (filter.createdFrom() != null) {
+            conditions.add("created_at >= :createdFrom");
+            params.addValue("createdFrom", filter.createdFrom().atOffset(ZoneOffset.UTC));
+        }
+        if (filter.createdTo() != null) {
+            conditions.add("created_at < :createdTo");
+            params.addValue("createdTo", filter.createdTo().atOffset(ZoneOffset.UTC));
+        }
+        if (StringUtils.hasLength(filter.emailPrefix())) {
+            conditions.add("lower(email) LIKE :emailPrefix");
+            params.addValue("emailPrefix", escapeLike(filter.emailPrefix().toLowerCase(Locale.ROOT)) + "%");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    // Backslash is PostgreSQL's default LIKE escape
+    private static String escapeLike(String value) {
+        return value
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private static UserResource toResource(ResultSet rs) throws SQLException {
+        return new UserResource(
+                rs.getObject("id", UUID.class),
+                rs.getString("email"),
+                rs.getString("display_name"),
+                StringUtils.parseLocale(rs.getString("locale")).toLanguageTag(),
+                ROLES_CONVERTER.convertToEntityAttribute((String[]) rs.getArray("roles").getArray()),
+                null
+        );
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+
+        // Spreadsheets would run a cell starting with these as a formula
+        var formula = !value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0;
+        var quote = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula)
+            writer.write('\'');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(UserResource user) throws IOException;
+    }
+}
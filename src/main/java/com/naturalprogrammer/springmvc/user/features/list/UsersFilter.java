@@ -0,0 +1,28 @@
+package com.naturalprogrammer.springmvc.user.features.list;
+
+import com.naturalprogrammer.springmvc.user.domain.Role;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * Optional criteria for listing users, bound from the query parameters. Absent ones don't filter.
+ */
+public record UsersFilter(
+
+        @Schema(example = "ADMIN")
+        Role role,
+
+        @Schema(example = "true")
+        Boolean verified,
+
+        @Schema(title = "Inclusive", example = "2026-01-01T00:00:00Z")
+        Instant createdFrom,
+
+        @Schema(title = "Exclusive", example = "2026-02-01T00:00:00Z")
+        Instant createdTo,
+
+        @Schema(title = "Case-insensitive", example = "sanjay@")
+        String emailPrefix
+) {
+}
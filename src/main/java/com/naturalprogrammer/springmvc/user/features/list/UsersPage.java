@@ -0,0 +1,20 @@
+package com.naturalprogrammer.springmvc.user.features.list;
+
+import com.naturalprogrammer.springmvc.user.services.UserResource;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.naturalprogrammer.springmvc.common.CommonUtils.CONTENT_TYPE_PREFIX;
+
+public record UsersPage(
+
+        List<UserResource> users,
+
+        @Schema(title = "Pass as the 'after' parameter to get the next page. Absent on the last page",
+                example = "8fd1502e-759d-419f-aaac-e61478fc6406")
+        UUID next
+) {
+    public static final String CONTENT_TYPE = CONTENT_TYPE_PREFIX + "users-page.v1+json";
+}
@@ -2,6 +2,7 @@ package com.naturalprogrammer.springmvc.user.features.login;
 
 import com.naturalprogrammer.springmvc.common.error.Problem;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -20,6 +21,7 @@ import java.util.UUID;
 import static com.naturalprogrammer.springmvc.common.CommonUtils.toResponse;
 import static com.naturalprogrammer.springmvc.common.Path.LOGIN;
 import static com.naturalprogrammer.springmvc.common.Path.USERS;
+import static com.naturalprogrammer.springmvc.user.features.login.AuthTokenCreator.REUSE_RESOURCE_TOKEN_DESCR;
 
 
 @RestController
@@ -72,9 +74,14 @@ public class AuthTokenController {
     @GetMapping(value = USERS + "/{id}/auth-tokens", produces = AuthTokensResource.CONTENT_TYPE)
     ResponseEntity<?> createAuthTokens(
             @PathVariable UUID id,
-            @RequestParam(required = false) Long resourceTokenValidForMillis
+            @RequestParam(required = false) Long resourceTokenValidForMillis,
+            @Parameter(description = REUSE_RESOURCE_TOKEN_DESCR)
+            @RequestParam(defaultValue = "false") boolean reuseResourceToken
     ) {
-        return toResponse(authTokenCreator.create(id, resourceTokenValidForMillis), ResponseEntity::ok);
+        return toResponse(
+                authTokenCreator.create(id, resourceTokenValidForMillis, reuseResourceToken),
+                ResponseEntity::ok
+        );
     }
 
     @Operation(summary = "Create tokens using client specific resource token")
@@ -1,20 +1,26 @@
 package com.naturalprogrammer.springmvc.user.features.login;
 
+import com.naturalprogrammer.springmvc.common.CommonUtils;
 import com.naturalprogrammer.springmvc.common.error.Problem;
 import com.naturalprogrammer.springmvc.common.error.ProblemBuilder;
 import com.naturalprogrammer.springmvc.common.error.ProblemType;
 import com.naturalprogrammer.springmvc.common.jwt.JwsService;
+import com.naturalprogrammer.springmvc.common.jwt.JwsTemplate;
 import com.naturalprogrammer.springmvc.user.services.UserService;
 import io.jbock.util.Either;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
 
 import java.time.Clock;
 import java.time.Instant;
-import java.util.Date;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static com.naturalprogrammer.springmvc.common.jwt.JwtPurpose.AUTH;
@@ -26,27 +32,106 @@ import static org.springframework.security.oauth2.core.OAuth2TokenIntrospectionC
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AuthTokenCreator {
 
     public static final long DEFAULT_RESOURCE_TOKEN_VALID_MILLIS = DAYS.toMillis(30);
     public static final String RESOURCE_TOKEN_VALID_MILLIS_DESCR = "For the milliseconds the returned resource-token is valid. E.g. 1209600000 for 15 days. If not provided, default is 30 days";
 
+    /**
+     * A presented resource token is reused only if it's valid at least this long
+     */
+    public static final long MIN_REUSABLE_RESOURCE_TOKEN_VALID_MILLIS = DAYS.toMillis(1);
+    public static final String REUSE_RESOURCE_TOKEN_DESCR = "Return the presented resource-token instead of signing a new one, if it's the user's own and valid at least one more day. resourceTokenValidForMillis is then ignored";
+    public static final String REFRESH_COUNTER_NAME = "auth.tokens.refresh";
+
     public static final long CLIENT_SPECIFIC_RESOURCE_TOKEN_VALID_MILLIS = MINUTES.toMillis(1);
     public static final long ACCESS_TOKEN_VALID_MILLIS = MINUTES.toMillis(30);
 
     private final UserService userService;
     private final ObjectFactory<ProblemBuilder> problemBuilder;
-    private final JwsService jwsService;
+    private final CommonUtils commonUtils;
     private final Clock clock;
+    private final Map<AuthScope, JwsTemplate> templates = new EnumMap<>(AuthScope.class);
+    private final Counter reusedRefreshCounter;
+    private final Counter fullRefreshCounter;
+
+    public AuthTokenCreator(
+            UserService userService,
+            ObjectFactory<ProblemBuilder> problemBuilder,
+            JwsService jwsService,
+            CommonUtils commonUtils,
+            Clock clock,
+            MeterRegistry meterRegistry
+    ) {
+        this.userService = userService;
+        this.problemBuilder = problemBuilder;
+        this.commonUtils = commonUtils;
+        this.clock = clock;
+
+        for (var scope : AuthScope.values())
+            templates.put(scope, jwsService.createTemplate(Map.of(PURPOSE, AUTH, SCOPE, scope.getValue())));
+
+        reusedRefreshCounter = refreshCounter(meterRegistry, "reused");
+        fullRefreshCounter = refreshCounter(meterRegistry, "full");
+    }
+
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String path) {
+        return Counter.builder(REFRESH_COUNTER_NAME)
+                .description("Auth token refreshes, by whether the resource token was reused or signed afresh")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
 
     public Either<Problem, AuthTokensResource> create(
             UUID userId,
             Long resourceTokenValidForMillis
     ) {
-        return userService.isSelfOrAdmin(userId)
-                ? Either.right(create(userId.toString(), resourceTokenValidForMillis))
-                : Either.left(problemBuilder.getObject().build(ProblemType.NOT_FOUND, "User %s not found".formatted(userId)));
+        return create(userId, resourceTokenValidForMillis, false);
+    }
+
+    public Either<Problem, AuthTokensResource> create(
+            UUID userId,
+            Long resourceTokenValidForMillis,
+            boolean reuseResourceToken
+    ) {
+        if (!userService.isSelfOrAdmin(userId))
+            return Either.left(problemBuilder.getObject().build(ProblemType.NOT_FOUND, "User %s not found".formatted(userId)));
+
+        var userIdStr = userId.toString();
+        if (reuseResourceToken) {
+            var reusable = getReusableResourceToken(userIdStr);
+            if (reusable.isPresent()) {
+                reusedRefreshCounter.increment();
+                return Either.right(createReusing(userIdStr, reusable.get()));
+            }
+        }
+
+        fullRefreshCounter.increment();
+        return Either.right(create(userIdStr, resourceTokenValidForMillis));
+    }
+
+    private Optional<Jwt> getReusableResourceToken(String userIdStr) {
+
+        var minValidUntil = clock.instant().plusMillis(MIN_REUSABLE_RESOURCE_TOKEN_VALID_MILLIS);
+        return commonUtils.getAuthentication()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(authentication -> ((JwtAuthenticationToken) authentication).getToken())
+                .filter(jwt -> userIdStr.equals(jwt.getSubject())) // not an admin's token
+                .filter(jwt -> AuthScope.AUTH_TOKENS.getValue().equals(jwt.getClaimAsString(SCOPE)))
+                .filter(jwt -> jwt.getExpiresAt() != null && jwt.getExpiresAt().isAfter(minValidUntil));
+    }
+
+    private AuthTokensResource createReusing(String userIdStr, Jwt resourceToken) {
+
+        var accessTokenValidUntil = clock.instant().plusMillis(ACCESS_TOKEN_VALID_MILLIS + 1).truncatedTo(SECONDS);
+        var authToken = new AuthTokensResource(
+                resourceToken.getTokenValue(),
+                createAccessToken(userIdStr, accessTokenValidUntil),
+                resourceToken.getExpiresAt(),
+                accessTokenValidUntil
+        );
+        log.info("Created {} reusing the resource token for user {}", authToken, userIdStr);
+        return authToken;
     }
 
     public AuthTokensResource create(
@@ -73,11 +158,7 @@ public class AuthTokenCreator {
     }
 
     private String createTokenWithScope(String userIdStr, Instant validUntil, AuthScope scope) {
-        return jwsService.createToken(
-                userIdStr,
-                Date.from(validUntil),
-                Map.of(PURPOSE, AUTH, SCOPE, scope.getValue())
-        );
+        return templates.get(scope).createToken(userIdStr, validUntil);
     }
 
     public String createAccessToken(String userIdStr, Instant validUntil) {
@@ -4,25 +4,41 @@ import com.naturalprogrammer.springmvc.common.error.BeanValidator;
 import com.naturalprogrammer.springmvc.common.error.Problem;
 import com.naturalprogrammer.springmvc.common.error.ProblemBuilder;
 import com.naturalprogrammer.springmvc.common.error.ProblemType;
+import com.naturalprogrammer.springmvc.common.ratelimit.RateLimiter;
 import com.naturalprogrammer.springmvc.user.domain.User;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import com.naturalprogrammer.springmvc.user.services.KnownEmailFilter;
 import io.jbock.util.Either;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+import java.util.UUID;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LoginService {
 
+    private static final String LOGIN_ACTION = "login";
+
     private final BeanValidator validator;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final ObjectFactory<ProblemBuilder> problemBuilder;
     private final AuthTokenCreator authTokenCreator;
+    private final PasswordRehasher passwordRehasher;
+    private final RateLimiter rateLimiter;
+    private final KnownEmailFilter knownEmailFilter;
+
+    // Matched against for unknown emails, so that they take as long as wrong passwords
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    private final String dummyPasswordHash = passwordEncoder.encode(UUID.randomUUID().toString());
 
     public Either<Problem, AuthTokensResource> login(LoginRequest request) {
 
@@ -33,15 +49,32 @@ public class LoginService {
 
     private Either<Problem, AuthTokensResource> loginValidated(LoginRequest loginRequest) {
 
-        return userRepository
-                .findByEmail(loginRequest.email())
-                .map(user -> createResourceToken(user, loginRequest))
-                .orElseGet(() -> Either.left(problemBuilder.getObject().build(ProblemType.WRONG_CREDENTIALS, loginRequest.toString())));
+        var throttled = rateLimiter.check(LOGIN_ACTION, loginRequest.email());
+        if (throttled.isPresent())
+            return Either.left(throttled.get());
+
+        var user = knownEmailFilter.mightExist(loginRequest.email())
+                ? userRepository.findByEmail(loginRequest.email())
+                : Optional.<User>empty();
+
+        return user
+                .map(u -> createResourceToken(u, loginRequest))
+                .orElseGet(() -> unknownUser(loginRequest));
+    }
+
+    private Either<Problem, AuthTokensResource> unknownUser(LoginRequest loginRequest) {
+        passwordEncoder.matches(loginRequest.password(), getDummyPasswordHash());
+        return Either.left(problemBuilder.getObject().build(ProblemType.WRONG_CREDENTIALS, loginRequest.toString()));
     }
 
     private Either<Problem, AuthTokensResource> createResourceToken(User user, LoginRequest loginRequest) {
-        return passwordEncoder.matches(loginRequest.password(), user.getPassword())
-                ? Either.right(authTokenCreator.create(user.getIdStr(), loginRequest.resourceTokenValidForMillis()))
-                : Either.left(problemBuilder.getObject().build(ProblemType.WRONG_CREDENTIALS, loginRequest.toString()));
+
+        if (!passwordEncoder.matches(loginRequest.password(), user.getPassword()))
+            return Either.left(problemBuilder.getObject().build(ProblemType.WRONG_CREDENTIALS, loginRequest.toString()));
+
+        if (passwordEncoder.upgradeEncoding(user.getPassword()))
+            passwordRehasher.rehash(user.getId(), loginRequest.password(), user.getPassword());
+
+        return Either.right(authTokenCreator.create(user.getIdStr(), loginRequest.resourceTokenValidForMillis()));
     }
 }
@@ -0,0 +1,38 @@
+package com.naturalprogrammer.springmvc.user.features.login;
+
+import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Re-encodes a password hash that uses an outdated encoding or strength, after a successful login
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordRehasher {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    @Async
+    public void rehash(UUID userId, String rawPassword, String outdatedHash) {
+        try {
+            userRepository.findById(userId)
+                    .filter(user -> outdatedHash.equals(user.getPassword())) // not changed meanwhile
+                    .ifPresentOrElse(user -> {
+                        user.setPassword(passwordEncoder.encode(rawPassword));
+                        userRepository.save(user);
+                        log.info("Rehashed the password of user {}", userId);
+                    }, () -> log.info("Not rehashing the password of user {}, as it has changed", userId));
+        } catch (RuntimeException ex) {
+            // e.g. a concurrent update or a busy hashing executor; the next login will retry
+            log.warn("Couldn't rehash the password of user {}", userId, ex);
+        }
+    }
+}
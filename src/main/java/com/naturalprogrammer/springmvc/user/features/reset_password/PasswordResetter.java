@@ -7,6 +7,7 @@ import com.naturalprogrammer.springmvc.common.error.ProblemType;
 import com.naturalprogrammer.springmvc.common.jwt.JweService;
 import com.naturalprogrammer.springmvc.user.domain.User;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import com.naturalprogrammer.springmvc.user.services.UserPrincipalCache;
 import com.naturalprogrammer.springmvc.user.services.UserService;
 import com.nimbusds.jwt.JWTClaimsSet;
 import lombok.RequiredArgsConstructor;
@@ -37,6 +38,7 @@ class PasswordResetter {
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
     private final Clock clock;
+    private final UserPrincipalCache userPrincipalCache;
 
     public Optional<Problem> reset(ResetPasswordRequest request) {
 
@@ -85,6 +87,7 @@ class PasswordResetter {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.resetTokensValidFrom(clock);
         userRepository.save(user);
+        userPrincipalCache.evict(user.getId());
         return Optional.empty();
     }
 }
@@ -5,6 +5,7 @@ import com.naturalprogrammer.springmvc.common.jwt.JweService;
 import com.naturalprogrammer.springmvc.user.domain.Role;
 import com.naturalprogrammer.springmvc.user.domain.User;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import com.naturalprogrammer.springmvc.user.services.UserPrincipalCache;
 import com.naturalprogrammer.springmvc.user.services.UserResource;
 import com.naturalprogrammer.springmvc.user.services.UserService;
 import com.nimbusds.jwt.JWTClaimsSet;
@@ -44,6 +45,7 @@ class ValidatedUserVerifier {
     private final UserRepository userRepository;
     private final UserService userService;
     private final JweService jweService;
+    private final UserPrincipalCache userPrincipalCache;
 
     public Either<Problem, UserResource> verify(UUID userId, UserVerificationRequest request) {
 
@@ -82,6 +84,7 @@ class ValidatedUserVerifier {
         user.getRoles().remove(Role.UNVERIFIED);
         user.getRoles().add(Role.VERIFIED);
         userRepository.save(user);
+        userPrincipalCache.evict(user.getId());
         return Either.right(userService.toResource(user));
     }
 
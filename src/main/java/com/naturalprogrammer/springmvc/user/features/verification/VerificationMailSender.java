@@ -2,11 +2,14 @@ package com.naturalprogrammer.springmvc.user.features.verification;
 
 import com.naturalprogrammer.springmvc.common.MessageGetter;
 import com.naturalprogrammer.springmvc.common.jwt.JweService;
+import com.naturalprogrammer.springmvc.common.mail.MailCoalescer;
 import com.naturalprogrammer.springmvc.common.mail.MailData;
-import com.naturalprogrammer.springmvc.common.mail.MailSender;
+import com.naturalprogrammer.springmvc.common.mail.template.MailTemplates;
+import com.naturalprogrammer.springmvc.common.mail.outbox.MailOutbox;
 import com.naturalprogrammer.springmvc.config.MyProperties;
 import com.naturalprogrammer.springmvc.user.domain.User;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.Clock;
@@ -18,28 +21,52 @@ import static com.naturalprogrammer.springmvc.common.jwt.JwtPurpose.EMAIL_VERIFI
 import static com.naturalprogrammer.springmvc.common.jwt.JwtPurpose.PURPOSE;
 import static org.springframework.security.oauth2.core.oidc.StandardClaimNames.EMAIL;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class VerificationMailSender {
 
     public static final long VERIFICATION_TOKEN_VALID_DAYS = 1;
+    public static final String VERIFICATION_MAIL_KEY_PREFIX = "verification:";
 
     private final JweService jweService;
     private final Clock clock;
     private final MessageGetter messageGetter;
-    private final MailSender mailSender;
+    private final MailTemplates mailTemplates;
+    private final MailOutbox mailOutbox;
+    private final MailCoalescer mailCoalescer;
     private final MyProperties properties;
 
     public void send(User user) {
+
+        var key = VERIFICATION_MAIL_KEY_PREFIX + user.getId();
+        if (!mailCoalescer.tryAcquire(key, "verification")) {
+            log.info("Not sending another verification mail to {}, as one was sent recently", user);
+            return;
+        }
+        try {
+            enqueue(user, key);
+        } catch (RuntimeException e) {
+            mailCoalescer.release(key);
+            throw e;
+        }
+    }
+
+    private void enqueue(User user, String key) {
         var verificationToken = createVerificationToken(user);
+        var body = mailTemplates.render("verification", Map.of(
+                "name", user.getDisplayName(),
+                "homepage", properties.homepage(),
+                "token", verificationToken
+        ));
         var mail = new MailData(
                 user.getEmail(),
                 messageGetter.getMessage("verification-mail-subject"),
-                messageGetter.getMessage("verification-mail-body",
-                        user.getDisplayName(), properties.homepage(), verificationToken),
+                body.html(),
+                body.text(),
                 null
         );
-        mailSender.send(mail);
+        mailOutbox.enqueue(key, mail);
     }
 
     private String createVerificationToken(User user) {
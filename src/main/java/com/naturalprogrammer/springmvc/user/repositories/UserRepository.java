@@ -1,14 +1,47 @@
 package com.naturalprogrammer.springmvc.user.repositories;
 
 import com.naturalprogrammer.springmvc.user.domain.User;
+import com.naturalprogrammer.springmvc.user.services.UserPrincipal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
 
+    // Email lookups ignore case, using the usr_email_lower index.
+    // Not derived ...IgnoreCase methods, which would use upper().
+
+    @Query("select case when count(u) > 0 then true else false end from User u where lower(u.email) = lower(:email)")
     boolean existsByEmail(String email);
 
+    @Query("select u from User u where lower(u.email) = lower(:email)")
     Optional<User> findByEmail(String email);
+
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
+
+    // Projections for the read paths. They select only the needed columns, e.g. not the password hash,
+    // and aren't managed, so there's nothing for Hibernate to snapshot and dirty check.
+
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.naturalprogrammer.springmvc.user.services.UserPrincipal(u.id, u.roles, u.tokensValidFrom, u.version)
+            from User u where u.id = :id""")
+    Optional<UserPrincipal> findPrincipalById(UUID id);
+
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.naturalprogrammer.springmvc.user.repositories.UserView(u.id, u.email, u.displayName, u.locale, u.roles)
+            from User u where u.id = :id""")
+    Optional<UserView> findViewById(UUID id);
+
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.naturalprogrammer.springmvc.user.repositories.UserView(u.id, u.email, u.displayName, u.locale, u.roles)
+            from User u where lower(u.email) = lower(:email)""")
+    Optional<UserView> findViewByEmail(String email);
 }
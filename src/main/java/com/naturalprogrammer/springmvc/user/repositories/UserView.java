@@ -0,0 +1,19 @@
+package com.naturalprogrammer.springmvc.user.repositories;
+
+import com.naturalprogrammer.springmvc.user.domain.Role;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The columns of a user shown in its resource, read without loading the entity
+ */
+public record UserView(
+        UUID id,
+        String email,
+        String displayName,
+        Locale locale,
+        Set<Role> roles
+) {
+}
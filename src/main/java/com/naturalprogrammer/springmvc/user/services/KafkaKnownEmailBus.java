@@ -0,0 +1,92 @@
+package com.naturalprogrammer.springmvc.user.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Propagates {@link KnownEmailAddedEvent}s to all the nodes through Kafka,
+ * so that a user who signs up or changes email on one node is known to the {@link KnownEmailFilter} of every node.
+ * Every node consumes in its own consumer group, so that each of them receives all the emails.
+ * On being assigned the partition, the consumer rewinds a little and has the filter rebuilt from the database,
+ * so that an email saved during the rebuild is consumed after it; a duplicate is harmless.
+ * An email whose publishing failed reaches the other nodes only with their next periodic rebuild.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "my.known-emails", name = "kafka-propagation", havingValue = "true")
+public class KafkaKnownEmailBus implements ConsumerSeekAware {
+
+    public static final String TOPIC = "known-emails";
+    public static final String LISTENER_ID = "known-emails-listener";
+
+    // Don't let an unavailable broker block the request threads forever
+    private static final int MAX_BLOCK_MS = 5000;
+
+    // Covers an email published before the rebuild's snapshot, by a transaction committed after it
+    private static final Duration REWIND = Duration.ofMinutes(1);
+
+    private final KnownEmailFilter knownEmailFilter;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    public KafkaKnownEmailBus(
+            KnownEmailFilter knownEmailFilter,
+            ProducerFactory<String, String> producerFactory
+    ) {
+        this.knownEmailFilter = knownEmailFilter;
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory, Map.of(ProducerConfig.MAX_BLOCK_MS_CONFIG, MAX_BLOCK_MS));
+    }
+
+    @Bean
+    public NewTopic knownEmailsTopic() {
+        return TopicBuilder.name(TOPIC).partitions(1).build();
+    }
+
+    @EventListener
+    public void publish(KnownEmailAddedEvent event) {
+        kafkaTemplate.send(TOPIC, event.email()).whenComplete((result, ex) -> {
+            if (ex != null)
+                log.error("Failed publishing a known email; the other nodes will know it after their next rebuild", ex);
+        });
+    }
+
+    @KafkaListener(
+            id = LISTENER_ID,
+            topics = TOPIC,
+            groupId = "${spring.application.name}-known-emails-${random.uuid}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void onKnownEmail(ConsumerRecord<String, String> knownEmail, Acknowledgment ack) {
+        knownEmailFilter.addLocally(knownEmail.value());
+        ack.acknowledge();
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        if (assignments.isEmpty())
+            return;
+        callback.seekToTimestamp(assignments.keySet(), System.currentTimeMillis() - REWIND.toMillis());
+        knownEmailFilter.propagationStarted();
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        knownEmailFilter.propagationStopped();
+    }
+}
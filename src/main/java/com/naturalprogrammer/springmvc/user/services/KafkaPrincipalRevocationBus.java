@@ -0,0 +1,73 @@
+package com.naturalprogrammer.springmvc.user.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Propagates {@link UserPrincipalChangedEvent}s to all the nodes through Kafka,
+ * so that every node evicts its local {@link UserPrincipalCache} entry.
+ * Every node consumes in its own consumer group, so that each of them receives all the events.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "my.principal-cache", name = "kafka-revocation", havingValue = "true")
+public class KafkaPrincipalRevocationBus {
+
+    public static final String TOPIC = "user-principal-revocations";
+    public static final String LISTENER_ID = "user-principal-revocations-listener";
+
+    // Don't let an unavailable broker block the request threads forever
+    private static final int MAX_BLOCK_MS = 5000;
+
+    private final UserPrincipalCache userPrincipalCache;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    public KafkaPrincipalRevocationBus(
+            UserPrincipalCache userPrincipalCache,
+            ProducerFactory<String, String> producerFactory
+    ) {
+        this.userPrincipalCache = userPrincipalCache;
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory, Map.of(ProducerConfig.MAX_BLOCK_MS_CONFIG, MAX_BLOCK_MS));
+    }
+
+    @Bean
+    public NewTopic userPrincipalRevocationsTopic() {
+        return TopicBuilder.name(TOPIC).partitions(1).build();
+    }
+
+    @EventListener
+    public void publish(UserPrincipalChangedEvent event) {
+        var userIdStr = event.userId().toString();
+        log.info("Publishing principal revocation of user {}", userIdStr);
+        kafkaTemplate.send(TOPIC, userIdStr, userIdStr).whenComplete((result, ex) -> {
+            if (ex != null)
+                log.error("Failed publishing principal revocation of user %s".formatted(userIdStr), ex);
+        });
+    }
+
+    @KafkaListener(
+            id = LISTENER_ID,
+            topics = TOPIC,
+            groupId = "${spring.application.name}-principal-revocations-${random.uuid}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void onRevocation(ConsumerRecord<String, String> revocation, Acknowledgment ack) {
+        log.info("Received principal revocation of user {}", revocation.value());
+        userPrincipalCache.evictLocally(UUID.fromString(revocation.value()));
+        ack.acknowledge();
+    }
+}
@@ -0,0 +1,7 @@
+package com.naturalprogrammer.springmvc.user.services;
+
+/**
+ * Published when an email is added to {@link KnownEmailFilter}, already lowercased
+ */
+public record KnownEmailAddedEvent(String email) {
+}
@@ -0,0 +1,192 @@
+package com.naturalprogrammer.springmvc.user.services;
+
+import com.naturalprogrammer.springmvc.common.BloomFilter;
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the emails of the registered users in a Bloom filter, so that
+ * logging in or asking for a forgot password link with an unknown email
+ * needn't hit the database.
+ * Emails are added by {@link KnownEmailListener} whenever a user is saved.
+ * The filter is rebuilt from the database every my.known-emails.rebuild-interval,
+ * which also drops the old emails, and recovers any email whose propagation was missed.
+ * Until it's first built, every email might exist.
+ * <p>
+ * Each node has its own filter: adding an email also publishes a {@link KnownEmailAddedEvent},
+ * which {@link KafkaKnownEmailBus} propagates to the other nodes when my.known-emails.kafka-propagation is on.
+ * The filter is then built only once the bus is consuming, so that no email falls between the snapshot and
+ * the propagation, and whenever the bus stops consuming, every email might exist until it's consuming again.
+ * Without propagation, enable the filter only on a single node.
+ */
+@Slf4j
+@Component
+public class KnownEmailFilter {
+
+    public static final String SKIPPED_COUNTER_NAME = "known.emails.skipped";
+    public static final String FOOTPRINT_GAUGE_NAME = "known.emails.footprint";
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MyProperties.KnownEmails config;
+    private final Counter skippedCounter;
+
+    private final Object rebuildLock = new Object();
+    private final AtomicInteger propagationChanges = new AtomicInteger();
+    private volatile boolean propagating;
+    private volatile Snapshot snapshot; // null until first built
+    private volatile BloomFilter rebuilding; // also receives the emails added while it's being built
+
+    /**
+     * @param propagationChanges counted when the build started; if propagation stopped since, an email may be missing
+     */
+    private record Snapshot(BloomFilter filter, int propagationChanges) {
+    }
+
+    public KnownEmailFilter(
+            UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher,
+            TransactionTemplate transactionTemplate,
+            MyProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+
+        config = properties.knownEmails();
+        propagating = !config.kafkaPropagation(); // nothing to wait for on a single node
+
+        skippedCounter = Counter.builder(SKIPPED_COUNTER_NAME)
+                .description("Lookups of emails that were definitely unknown, and so skipped the database")
+                .register(meterRegistry);
+        if (config.enabled())
+            Gauge.builder(FOOTPRINT_GAUGE_NAME, this, KnownEmailFilter::footprintBytes)
+                    .description("Heap held by the Bloom filter of known emails")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!config.kafkaPropagation()) // else built when KafkaKnownEmailBus starts consuming
+            rebuild();
+    }
+
+    @Scheduled(
+            initialDelayString = "${my.known-emails.rebuild-interval:15m}",
+            fixedDelayString = "${my.known-emails.rebuild-interval:15m}"
+    )
+    public void rebuild() {
+
+        if (!config.enabled() || !propagating)
+            return;
+
+        synchronized (rebuildLock) {
+            var changes = propagationChanges.get();
+            var next = BloomFilter.create(config.expectedEmails(), config.falsePositiveRate());
+            rebuilding = next;
+            var count = new AtomicLong();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    try (var emails = userRepository.streamAllEmails()) {
+                        emails.forEach(email -> {
+                            next.put(normalize(email)); // every node builds from the database itself
+                            count.incrementAndGet();
+                        });
+                    }
+                });
+                snapshot = new Snapshot(next, changes);
+            } finally {
+                rebuilding = null;
+            }
+            log.info("Built known emails filter with {} emails, {} bytes", count, next.footprintBytes());
+        }
+    }
+
+    /**
+     * Called when KafkaKnownEmailBus has started consuming the emails added on the other nodes.
+     * Rebuilds the filter, on the caller's thread, so that the consumed emails follow the snapshot.
+     */
+    public void propagationStarted() {
+        propagationChanges.incrementAndGet();
+        propagating = true;
+        rebuild();
+    }
+
+    /**
+     * Called when KafkaKnownEmailBus has stopped consuming; until it starts again, every email might exist
+     */
+    public void propagationStopped() {
+        propagating = false;
+        propagationChanges.incrementAndGet();
+    }
+
+    /**
+     * Adds the email here, and publishes it for the other nodes
+     */
+    public void add(String email) {
+        if (!config.enabled())
+            return;
+        var normalized = normalize(email);
+        put(normalized);
+        eventPublisher.publishEvent(new KnownEmailAddedEvent(normalized));
+    }
+
+    public void addLocally(String email) {
+        if (config.enabled())
+            put(normalize(email));
+    }
+
+    private void put(String normalized) {
+
+        var current = snapshot;
+        if (current != null)
+            current.filter().put(normalized);
+
+        var next = rebuilding;
+        if (next != null)
+            next.put(normalized);
+    }
+
+    /**
+     * @return false only if no user has the given email
+     */
+    public boolean mightExist(String email) {
+
+        if (!config.enabled())
+            return true;
+
+        var current = snapshot;
+        if (current == null || !propagating || current.propagationChanges() != propagationChanges.get()
+                || current.filter().mightContain(normalize(email)))
+            return true;
+
+        skippedCounter.increment();
+        return false;
+    }
+
+    private double footprintBytes() {
+        var current = snapshot;
+        return current == null ? 0 : current.filter().footprintBytes();
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
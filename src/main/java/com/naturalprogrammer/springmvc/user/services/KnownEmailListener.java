@@ -0,0 +1,24 @@
+package com.naturalprogrammer.springmvc.user.services;
+
+import com.naturalprogrammer.springmvc.user.domain.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Keeps {@link KnownEmailFilter} up-to-date on signup and email change.
+ * Instantiated by Hibernate through Spring, and so looks up the filter lazily
+ * to avoid a cycle with the entity manager factory.
+ */
+@RequiredArgsConstructor
+public class KnownEmailListener {
+
+    private final ObjectProvider<KnownEmailFilter> knownEmailFilter;
+
+    @PostPersist
+    @PostUpdate
+    void onSaved(User user) {
+        knownEmailFilter.getObject().add(user.getEmail());
+    }
+}
@@ -0,0 +1,45 @@
+package com.naturalprogrammer.springmvc.user.services;
+
+import com.naturalprogrammer.springmvc.user.domain.Role;
+import com.naturalprogrammer.springmvc.user.domain.User;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The subset of a user needed for authenticating a request
+ *
+ * @param roleMask the mask of the roles, see {@link Role#mask(java.util.Collection)}, which it must match
+ */
+public record UserPrincipal(
+        UUID id,
+        Set<Role> roles,
+        Instant tokensValidFrom,
+        Integer version,
+        int roleMask
+) {
+
+    public UserPrincipal {
+        roles = Set.copyOf(roles);
+        if (roleMask != Role.mask(roles))
+            throw new IllegalArgumentException("Role mask " + roleMask + " doesn't match the roles " + roles);
+    }
+
+    /**
+     * Derives the role mask from the roles; used by the UserRepository.findPrincipalById projection,
+     * which can't call a factory method
+     */
+    public UserPrincipal(UUID id, Set<Role> roles, Instant tokensValidFrom, Integer version) {
+        this(id, roles, tokensValidFrom, version, Role.mask(roles));
+    }
+
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(
+                user.getId(),
+                user.getRoles(),
+                user.getTokensValidFrom(),
+                user.getVersion()
+        );
+    }
+}
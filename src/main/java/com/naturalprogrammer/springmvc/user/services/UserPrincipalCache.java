@@ -0,0 +1,74 @@
+package com.naturalprogrammer.springmvc.user.services;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Caches the principals of recently authenticated users, so that
+ * authenticating a request doesn't need a database round trip.
+ * Whoever changes the roles or tokensValidFrom of a user must call evict,
+ * which also publishes a {@link UserPrincipalChangedEvent} for other nodes.
+ */
+@Slf4j
+@Component
+public class UserPrincipalCache {
+
+    public static final String CACHE_NAME = "user-principals";
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AsyncLoadingCache<UUID, UserPrincipal> cache;
+
+    public UserPrincipalCache(
+            UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher,
+            MyProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+
+        var config = properties.principalCache();
+        cache = Caffeine.newBuilder()
+                .maximumSize(config.maximumSize())
+                .expireAfterWrite(config.timeToLive())
+                .recordStats()
+                // Loads in the calling thread, but outside the lock of the underlying map,
+                // which would otherwise pin a virtual thread to its carrier during the query
+                .executor(Runnable::run)
+                .buildAsync(this::load);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+    }
+
+    public Optional<UserPrincipal> get(UUID userId) {
+        return Optional.ofNullable(cache.synchronous().get(userId));
+    }
+
+    public void evict(UUID userId) {
+        evictLocally(userId);
+        eventPublisher.publishEvent(new UserPrincipalChangedEvent(userId));
+    }
+
+    public void evictLocally(UUID userId) {
+        log.info("Evicting principal of user {}", userId);
+        cache.synchronous().invalidate(userId);
+    }
+
+    private UserPrincipal load(UUID userId) {
+        log.debug("Loading principal of user {}", userId);
+        return userRepository
+                .findPrincipalById(userId)
+                .orElse(null); // not cached
+    }
+}
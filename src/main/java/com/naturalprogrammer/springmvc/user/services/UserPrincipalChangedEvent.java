@@ -0,0 +1,9 @@
+package com.naturalprogrammer.springmvc.user.services;
+
+import java.util.UUID;
+
+/**
+ * Published when the roles or tokensValidFrom of a user change
+ */
+public record UserPrincipalChangedEvent(UUID userId) {
+}
@@ -4,26 +4,27 @@ import com.naturalprogrammer.springmvc.common.CommonUtils;
 import com.naturalprogrammer.springmvc.common.error.Problem;
 import com.naturalprogrammer.springmvc.common.error.ProblemBuilder;
 import com.naturalprogrammer.springmvc.common.error.ProblemType;
+import com.naturalprogrammer.springmvc.config.security.RoleAuthorities;
 import com.naturalprogrammer.springmvc.user.domain.Role;
 import com.naturalprogrammer.springmvc.user.domain.User;
 import com.naturalprogrammer.springmvc.user.features.login.AuthTokensResource;
 import com.naturalprogrammer.springmvc.user.features.signup.SignupRequest;
 import com.naturalprogrammer.springmvc.user.features.verification.VerificationMailSender;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import com.naturalprogrammer.springmvc.user.repositories.UserView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Clock;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.ObjectUtils.notEqual;
 
@@ -38,6 +39,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final VerificationMailSender verificationMailSender;
     private final ObjectFactory<ProblemBuilder> problemBuilder;
+    private final TransactionTemplate transactionTemplate;
 
 
     public UserResource toResource(User user) {
@@ -55,6 +57,17 @@ public class UserService {
         );
     }
 
+    public UserResource toResource(UserView user) {
+        return new UserResource(
+                user.id(),
+                user.email(),
+                user.displayName(),
+                user.locale().toLanguageTag(),
+                user.roles(),
+                null
+        );
+    }
+
     public boolean isSelfOrAdmin(UUID userId) {
 
         return commonUtils.getAuthentication()
@@ -72,12 +85,7 @@ public class UserService {
 
     private boolean isAdmin(Authentication authentication) {
 
-        var admin = authentication
-                .getAuthorities()
-                .stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toSet())
-                .containsAll(Set.of(Role.VERIFIED.authority(), Role.ADMIN.authority()));
+        var admin = Role.isAdmin(RoleAuthorities.mask(authentication.getAuthorities()));
 
         if (!admin)
             log.warn("Current user {} is not an admin. Available authorities: {}",
@@ -100,10 +108,12 @@ public class UserService {
         user.setRoles(Set.of(roles));
         user.setLocale(locale);
         user.resetTokensValidFrom(clock);
-        var savedUser = userRepository.save(user);
-        if (user.hasRoles(Role.UNVERIFIED))
-            verificationMailSender.send(savedUser);
-        return savedUser;
+        return transactionTemplate.execute(status -> {
+            var savedUser = userRepository.save(user);
+            if (user.hasRoles(Role.UNVERIFIED))
+                verificationMailSender.send(savedUser);
+            return savedUser;
+        });
     }
 
     public Problem userNotFound(UUID userId) {
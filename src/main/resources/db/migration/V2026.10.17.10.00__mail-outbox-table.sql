@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS mail_outbox
+(
+    id                UUID PRIMARY KEY,
+    idempotency_key   TEXT                     NOT NULL,
+
+    recipient         TEXT                     NOT NULL,
+    subject           TEXT                     NOT NULL,
+    body_html         TEXT                     NOT NULL,
+
+    created_at        TIMESTAMP WITH TIME ZONE NOT NULL,
+    pending           BOOLEAN                  NOT NULL DEFAULT TRUE,
+    attempts          INTEGER                  NOT NULL DEFAULT 0,
+    next_attempt_at   TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_error        TEXT,
+    sent_at           TIMESTAMP WITH TIME ZONE
+);
+
+-- At most one pending mail per key, e.g. per user for verification mails
+CREATE UNIQUE INDEX IF NOT EXISTS mail_outbox_pending_key ON mail_outbox (idempotency_key) WHERE pending;
+
+-- For the dispatcher to pick the due mails
+CREATE INDEX IF NOT EXISTS mail_outbox_due ON mail_outbox (next_attempt_at) WHERE pending;
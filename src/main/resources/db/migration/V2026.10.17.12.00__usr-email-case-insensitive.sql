@@ -0,0 +1,9 @@
+-- Emails are unique and looked up ignoring case. Fails if two existing emails differ only in case,
+-- which need to be merged first.
+-- Built concurrently, so that signups and email changes aren't blocked while it scans usr,
+-- which needs the script to run outside a transaction (see the .conf beside it).
+-- A failed build leaves an invalid usr_email_lower behind; drop it before retrying.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS usr_email_lower ON usr (lower(email));
+
+-- Superseded by the above
+ALTER TABLE usr DROP CONSTRAINT IF EXISTS usr_email_key;
@@ -0,0 +1,10 @@
+-- Built concurrently, so that writes to usr aren't blocked while they're built,
+-- which needs the script to run outside a transaction (see the .conf beside it).
+-- A failed build leaves an invalid index behind; drop it before retrying.
+
+-- For the email prefix filter of the user listing. The usr_email_lower index can't serve LIKE 'prefix%'
+-- unless the database collation is C
+CREATE INDEX CONCURRENTLY IF NOT EXISTS usr_email_lower_pattern ON usr (lower(email) text_pattern_ops);
+
+-- For the created range filter of the user listing
+CREATE INDEX CONCURRENTLY IF NOT EXISTS usr_created_at ON usr (created_at);
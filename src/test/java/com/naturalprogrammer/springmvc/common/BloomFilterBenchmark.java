@@ -0,0 +1,44 @@
+package com.naturalprogrammer.springmvc.common;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures lookups in the known emails filter at 1M and 10M registered users.
+ * Its footprint is asserted in {@link BloomFilterTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xmx4g"})
+public class BloomFilterBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int users;
+
+    private BloomFilter filter;
+    private int next;
+
+    @Setup
+    public void setUp() {
+
+        filter = BloomFilter.create(users, 0.01);
+        for (int i = 0; i < users; i++)
+            filter.put("user" + i + "@example.com");
+    }
+
+    @Benchmark
+    public boolean known() {
+        next = (next + 1) % users;
+        return filter.mightContain("user" + next + "@example.com");
+    }
+
+    @Benchmark
+    public boolean unknown() {
+        next = (next + 1) % users;
+        return filter.mightContain("stranger" + next + "@example.com");
+    }
+}
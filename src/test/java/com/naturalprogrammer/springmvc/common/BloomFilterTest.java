@@ -0,0 +1,68 @@
+package com.naturalprogrammer.springmvc.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    private static final int EXPECTED = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final BloomFilter subject = BloomFilter.create(EXPECTED, FALSE_POSITIVE_RATE);
+
+    @Test
+    void should_containEverythingPut() {
+
+        // when
+        IntStream.range(0, EXPECTED).forEach(i -> subject.put("user" + i + "@example.com"));
+
+        // then
+        assertThat(IntStream.range(0, EXPECTED))
+                .allMatch(i -> subject.mightContain("user" + i + "@example.com"));
+    }
+
+    @Test
+    void should_keepFalsePositivesNearTheConfiguredRate() {
+
+        // given
+        IntStream.range(0, EXPECTED).forEach(i -> subject.put("user" + i + "@example.com"));
+
+        // when
+        var falsePositives = IntStream.range(0, EXPECTED)
+                .filter(i -> subject.mightContain("stranger" + i + "@example.com"))
+                .count();
+
+        // then
+        assertThat((double) falsePositives / EXPECTED).isLessThan(FALSE_POSITIVE_RATE * 2);
+    }
+
+    @Test
+    void should_sizeFromExpectedInsertions() {
+
+        // 9.59 bits and 7 hash functions per element for 1%
+        assertThat(subject.bitSize()).isBetween(95_850L, 95_850L + 64);
+        assertThat(subject.hashFunctions()).isEqualTo(7);
+        assertThat(subject.footprintBytes()).isEqualTo(subject.bitSize() / 8);
+    }
+
+    @Test
+    void should_fitMillionsOfEmails_inMegabytes() {
+
+        // the sizes of BloomFilterBenchmark, at the default rate of my.known-emails; only the bit array is allocated
+        var million = BloomFilter.create(1_000_000, FALSE_POSITIVE_RATE);
+        var tenMillion = BloomFilter.create(10_000_000, FALSE_POSITIVE_RATE);
+
+        assertThat(million.footprintBytes()).isBetween(1_190_000L, 1_210_000L);
+        assertThat(tenMillion.footprintBytes()).isBetween(11_900_000L, 12_100_000L);
+    }
+
+    @Test
+    void should_rejectInvalidSizing() {
+        assertThatThrownBy(() -> BloomFilter.create(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(100, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
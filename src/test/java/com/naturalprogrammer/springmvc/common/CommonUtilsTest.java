@@ -0,0 +1,140 @@
+package com.naturalprogrammer.springmvc.common;
+
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static com.naturalprogrammer.springmvc.common.CommonUtils.X_FORWARDED_FOR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+class CommonUtilsTest {
+
+    private final CommonUtils subject = commonUtils(List.of("10.0.0.0/8", "192.168.1.1"));
+
+    private static CommonUtils commonUtils(List<String> trustedProxies) {
+        var properties = mock(MyProperties.class, RETURNS_DEEP_STUBS);
+        given(properties.clientIp().trustedProxies()).willReturn(trustedProxies);
+        return new CommonUtils(properties);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String... forwardedFor) {
+        var request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        for (var header : forwardedFor)
+            request.addHeader(X_FORWARDED_FOR, header);
+        return request;
+    }
+
+    @Test
+    void should_ignoreForwardedFor_when_notFromTrustedProxy() {
+
+        // given
+        var request = request("203.0.113.7", "198.51.100.1");
+
+        // when, then
+        assertThat(subject.getClientIp(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void should_ignoreForwardedFor_when_noTrustedProxies() {
+
+        // given
+        var request = request("10.0.0.5", "198.51.100.1");
+
+        // when, then
+        assertThat(commonUtils(List.of()).getClientIp(request)).isEqualTo("10.0.0.5");
+    }
+
+    @Test
+    void should_takeRightmostUntrustedHop() {
+
+        // given
+        var request = request("10.0.0.5", "1.2.3.4, 203.0.113.7, 192.168.1.1");
+
+        // when, then
+        assertThat(subject.getClientIp(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void shouldNot_letClientChooseTheBucket_byForgingForwardedFor() {
+
+        // given, the client sent "X-Forwarded-For: 1.2.3.4", and the trusted proxy appended its address
+        var forged = request("10.0.0.5", "1.2.3.4, 203.0.113.7");
+        var anotherForged = request("10.0.0.5", "5.6.7.8, 203.0.113.7");
+
+        // when, then
+        assertThat(subject.getClientIp(forged)).isEqualTo("203.0.113.7");
+        assertThat(subject.getClientIp(anotherForged)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void should_readRepeatedForwardedForHeaders_inOrder() {
+
+        // given
+        var request = request("10.0.0.5", "1.2.3.4", "203.0.113.7, 10.1.1.1");
+
+        // when, then
+        assertThat(subject.getClientIp(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void should_takeLeftmostHop_when_allHopsAreTrusted() {
+
+        // given
+        var request = request("10.0.0.5", "10.2.2.2, 10.1.1.1");
+
+        // when, then
+        assertThat(subject.getClientIp(request)).isEqualTo("10.2.2.2");
+    }
+
+    @Test
+    void shouldNot_resolveHostNames() {
+
+        // given
+        var request = request("10.0.0.5", "attacker.example.com");
+
+        // when, then
+        assertThat(subject.getClientIp(request)).isEqualTo("attacker.example.com");
+    }
+
+    @Test
+    void shouldNot_resolveHostNames_madeOfHexDigits() {
+
+        // given, names that a check of the characters alone would take for IPs
+        var request = request("10.0.0.5", "cafe.bad, dead.beef");
+
+        // when, then
+        assertThat(subject.getClientIp(request)).isEqualTo("dead.beef");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"10.0.0.5", "0.0.0.0", "255.255.255.255", "::1", "::", "2001:db8::7",
+            "2001:0db8:0000:0000:0000:ff00:0042:8329", "::ffff:10.0.0.5", "fe80::"})
+    void should_recogniseIpLiterals(String value) {
+        assertThat(CommonUtils.isIpLiteral(value)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "cafe.bad", "dead.beef", "abc", "1234", "10.0.0", "10.0.0.256", "01.2.3.4",
+            "1:2:3:4:5:6:7", "1:2:3:4:5:6:7:8:9", "1::2::3", ":::", "2001:db8::12345", "10.0.0.5::1"})
+    void shouldNot_recogniseNonIpLiterals(String value) {
+        assertThat(CommonUtils.isIpLiteral(value)).isFalse();
+    }
+
+    @Test
+    void should_fallBackToRemoteAddress_when_trustedProxySendsNoForwardedFor() {
+
+        // given
+        var request = request("10.0.0.5");
+
+        // when, then
+        assertThat(subject.getClientIp(request)).isEqualTo("10.0.0.5");
+    }
+}
@@ -3,7 +3,11 @@ package com.naturalprogrammer.springmvc.common.features.get_context;
 import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
 import org.junit.jupiter.api.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.mockConstruction;
+import static org.springframework.http.HttpHeaders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -16,8 +20,38 @@ class GetContextIntegrationTest extends AbstractIntegrationTest {
         mvc.perform(get("/context"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(ContextResource.CONTENT_TYPE))
+                .andExpect(header().string(ETAG, startsWith("\"")))
+                .andExpect(header().exists(LAST_MODIFIED))
+                .andExpect(header().string(CACHE_CONTROL, "max-age=3600, public"))
                 .andExpect(jsonPath("keys", hasSize(1)))
                 .andExpect(jsonPath("keys[0].id").value("e0498dad-4f5f-40cf-86e3-2726ec78463d"))
+                .andExpect(jsonPath("keys[0].algorithm").value("RS256"))
                 .andExpect(jsonPath("keys[0].publicKey").value("MIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEAltQ21+NEs7BvISW7h10TErdhBNFR5Dgdfff0tYDjCnWNOaYG/iTpdQkm9oV7ZrXnbQFLssc9cfiDjDrf+VTVDOAE1tunSaa1rM9bHqIf1JXTontwht2cABGUQgkp3+kWNY+1OSu6ESSCkUILracT85ccFeCtA20wGrHhMY2bODI4mJi4He7Mr4A5sR1eJQV4GJZJBLIH9H/6HDDl7azNBxosz7hQ5Ny2wSkonssdThhyK84MEoEpo5dY2/IHJjN6+X4B+CI7MyWLWWpGIa0R37zV5LDtbePmBcfFZfFjv2HDFEx2Vb5EkBajQ88XvRXcWKhE8wI89Hjsk00hmZzqNQIDAQAB"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_respondNotModified_withoutBuildingContext() throws Exception {
+
+        // given
+        var response = mvc.perform(get("/context")).andReturn().getResponse();
+        var etag = response.getHeader(ETAG);
+
+        try (var constructed = mockConstruction(ContextResource.class)) {
+
+            // when, then
+            mvc.perform(get("/context").header(IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(ETAG, etag))
+                    .andExpect(content().bytes(new byte[0]));
+
+            mvc.perform(get("/context").header(IF_MODIFIED_SINCE, response.getHeader(LAST_MODIFIED)))
+                    .andExpect(status().isNotModified());
+
+            mvc.perform(get("/context"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().bytes(response.getContentAsByteArray()));
+
+            assertThat(constructed.constructed()).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.naturalprogrammer.springmvc.common.features.get_jwks;
+
+import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+
+import static com.naturalprogrammer.springmvc.common.Path.JWKS;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.http.HttpHeaders.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class GetJwksIntegrationTest extends AbstractIntegrationTest {
+
+    @Test
+    void should_GetJwks() throws Exception {
+
+        // when, then
+        mvc.perform(get(JWKS))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(JwksResource.CONTENT_TYPE))
+                .andExpect(header().string(ETAG, startsWith("\"")))
+                .andExpect(header().string(CACHE_CONTROL, "max-age=3600, public"))
+                .andExpect(jsonPath("keys", hasSize(1)))
+                .andExpect(jsonPath("keys[0].kid").value("e0498dad-4f5f-40cf-86e3-2726ec78463d"))
+                .andExpect(jsonPath("keys[0].kty").value("RSA"))
+                .andExpect(jsonPath("keys[0].d").doesNotExist());
+    }
+
+    @Test
+    void should_respondNotModified_when_etagMatches() throws Exception {
+
+        // given
+        var etag = mvc.perform(get(JWKS))
+                .andReturn().getResponse().getHeader(ETAG);
+
+        // when, then
+        mvc.perform(get(JWKS).header(IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+    }
+}
@@ -0,0 +1,69 @@
+package com.naturalprogrammer.springmvc.common.jwt;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures signing and verifying an access-token sized JWS with each supported algorithm,
+ * to pick the cheapest safe one for my.jws.algorithm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class JwsAlgorithmBenchmark {
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    private JwsAlgorithm algorithm;
+
+    private JWSHeader header;
+    private JWSSigner signer;
+    private JWSVerifier verifier;
+    private byte[] signingInput;
+    private Base64URL signature;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        var id = UUID.randomUUID().toString();
+        JWK jwk = switch (algorithm) {
+            case RS256 -> new RSAKeyGenerator(2048).keyID(id).generate();
+            case ES256 -> new ECKeyGenerator(Curve.P_256).keyID(id).generate();
+            case EdDSA -> new OctetKeyPairGenerator(Curve.Ed25519).keyID(id).generate();
+        };
+        var key = new JwsKey(id, algorithm, jwk);
+
+        header = new JWSHeader.Builder(algorithm.getJwsAlgorithm()).keyID(id).build();
+        signer = key.signer();
+        verifier = key.verifier();
+
+        var payload = new Payload("""
+                {"sub":"%s","iss":"http://www.example.com","aud":"http://www.example.com",\
+                "iat":1700000000,"exp":1700001800,"purpose":"AUTH","scope":"normal"}"""
+                .formatted(UUID.randomUUID()));
+        signingInput = (header.toBase64URL() + "." + payload.toBase64URL()).getBytes(StandardCharsets.US_ASCII);
+        signature = signer.sign(header, signingInput);
+    }
+
+    @Benchmark
+    public Base64URL sign() throws JOSEException {
+        return signer.sign(header, signingInput);
+    }
+
+    @Benchmark
+    public boolean verify() throws JOSEException {
+        return verifier.verify(header, signingInput, signature);
+    }
+}
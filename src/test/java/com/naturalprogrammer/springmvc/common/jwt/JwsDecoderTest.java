@@ -0,0 +1,83 @@
+package com.naturalprogrammer.springmvc.common.jwt;
+
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.naturalprogrammer.springmvc.helpers.MyTestUtils.futureTime;
+import static com.naturalprogrammer.springmvc.helpers.MyTestUtils.pastTime;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+class JwsDecoderTest {
+
+    private final MyProperties properties = mockProperties();
+    private final JwsService jwsService = new JwsService(Clock.systemUTC(), properties, new SimpleMeterRegistry());
+    private final JwsDecoder subject = new JwsDecoder(jwsService);
+
+    private final String homepage = "http://www.test.example.com";
+    private final String userId = UUID.randomUUID().toString();
+
+    @SneakyThrows
+    private MyProperties mockProperties() {
+
+        var jwsKey = new RSAKeyGenerator(2048)
+                .keyID("foo")
+                .generate();
+
+        var properties = mock(MyProperties.class, RETURNS_DEEP_STUBS);
+        given(properties.jws().id()).willReturn("foo");
+        given(properties.jws().algorithm()).willReturn(JwsAlgorithm.RS256);
+        given(properties.jws().publicKey()).willReturn(jwsKey.toRSAPublicKey());
+        given(properties.jws().privateKey()).willReturn(jwsKey.toRSAPrivateKey());
+        return properties;
+    }
+
+    @BeforeEach
+    void setUp() {
+        given(properties.homepage()).willReturn(homepage);
+    }
+
+    @Test
+    void should_decodeToken() {
+
+        // given
+        var token = jwsService.createToken(userId, futureTime(), Map.of("scope", "normal"));
+
+        // when
+        var jwt = subject.decode(token);
+
+        // then
+        assertThat(jwt.getTokenValue()).isEqualTo(token);
+        assertThat(jwt.getSubject()).isEqualTo(userId);
+        assertThat(jwt.getAudience()).containsExactly(homepage);
+        assertThat(jwt.getExpiresAt()).isNotNull();
+        assertThat(jwt.getHeaders()).containsEntry("alg", "RS256").containsEntry("kid", "foo");
+        assertThat(jwt.getClaimAsString("scope")).isEqualTo("normal");
+    }
+
+    @Test
+    void shouldNot_decodeExpiredToken() {
+
+        // given
+        var token = jwsService.createToken(userId, pastTime());
+
+        // when, then
+        assertThatThrownBy(() -> subject.decode(token)).hasMessageContaining("EXPIRED_JWT");
+    }
+
+    @Test
+    void shouldNot_decodeMalformedToken() {
+        assertThatThrownBy(() -> subject.decode("not-a-token")).hasMessageContaining("TOKEN_VERIFICATION_FAILED");
+    }
+}
@@ -3,11 +3,21 @@ package com.naturalprogrammer.springmvc.common.jwt;
 import com.naturalprogrammer.springmvc.common.error.ProblemType;
 import com.naturalprogrammer.springmvc.config.MyProperties;
 import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
 import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.core.io.ByteArrayResource;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -27,6 +37,7 @@ class JwtServiceTest {
 
     private final Clock clock = mock(Clock.class);
     private final MyProperties properties = mockProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @SneakyThrows
     private MyProperties mockProperties() {
@@ -36,14 +47,16 @@ class JwtServiceTest {
                 .generate();
 
         var properties = mock(MyProperties.class, RETURNS_DEEP_STUBS);
+        given(properties.jws().id()).willReturn("foo");
+        given(properties.jws().algorithm()).willReturn(JwsAlgorithm.RS256);
         given(properties.jws().publicKey()).willReturn(jwsKey.toRSAPublicKey());
         given(properties.jws().privateKey()).willReturn(jwsKey.toRSAPrivateKey());
         given(properties.jwe().key()).willReturn("BCBD9D4139418B06DAB351F31B83052D");
         return properties;
     }
 
-    private final JwsService jwsService = new JwsService(clock, properties);
-    private final JweService jweService = new JweService(clock, properties);
+    private final JwsService jwsService = new JwsService(clock, properties, meterRegistry);
+    private final JweService jweService = new JweService(clock, properties, meterRegistry);
 
     private final String homepage = "http://www.test.example.com";
 
@@ -88,6 +101,69 @@ class JwtServiceTest {
         assertThat(claimSet.getClaim("claim1")).isEqualTo("value1");
     }
 
+    @Test
+    void should_createJwsFromTemplate() {
+
+        // given
+        var template = jwsService.createTemplate(Map.of("claim1", "value1", "purpose", JwtPurpose.AUTH));
+
+        // when
+        var token = template.createToken(subject, future.toInstant());
+        var parseResult = jwsService.parseToken(token);
+
+        // then
+        assertThat(parseResult.isRight()).isTrue();
+        var claimSet = parseResult.getRight().orElseThrow();
+        assertThat(claimSet.getSubject()).isEqualTo(subject);
+        assertThat(claimSet.getIssuer()).isEqualTo(homepage);
+        assertThat(claimSet.getIssueTime()).isEqualTo(now.truncatedTo(ChronoUnit.SECONDS));
+        assertThat(claimSet.getAudience()).isEqualTo(List.of(homepage));
+        assertThat(claimSet.getExpirationTime()).isEqualTo(future);
+        assertThat(claimSet.getClaim("claim1")).isEqualTo("value1");
+        assertThat(claimSet.getClaim("purpose")).isEqualTo("AUTH");
+    }
+
+    @Test
+    void should_reuseParseTimer() {
+
+        // given
+        var token = jwsService.createToken(subject, future, Map.of("purpose", JwtPurpose.AUTH.name()));
+
+        // when
+        jwsService.parseToken(token);
+        jwsService.parseToken(token);
+
+        // then
+        var timers = meterRegistry.get(JwtMetrics.TIMER_NAME).timers();
+        assertThat(timers).hasSize(1);
+        var timer = timers.iterator().next();
+        assertThat(timer.getId().getTag("purpose")).isEqualTo("AUTH");
+        assertThat(timer.getId().getTag("outcome")).isEqualTo("VALID");
+        assertThat(timer.count()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = JwsAlgorithm.class, names = {"ES256", "EdDSA"})
+    void should_createAndParseJws_when_curveBasedAlgorithm(JwsAlgorithm algorithm) throws Exception {
+
+        // given
+        JWK jwk = algorithm == JwsAlgorithm.ES256
+                ? new ECKeyGenerator(Curve.P_256).generate()
+                : new OctetKeyPairGenerator(Curve.Ed25519).generate();
+        given(properties.jws().algorithm()).willReturn(algorithm);
+        given(properties.jws().jwk()).willReturn(new ByteArrayResource(jwk.toJSONString().getBytes(StandardCharsets.UTF_8)));
+        var curveJwsService = new JwsService(clock, properties, meterRegistry);
+
+        // when, then
+        should_createAndParseToken(curveJwsService);
+
+        var token = curveJwsService.createToken(subject, future);
+        assertThat(JWSObject.parse(token).getHeader().getAlgorithm()).isEqualTo(algorithm.getJwsAlgorithm());
+        assertThat(jwsService.parseToken(token).getLeft()).hasValue(ProblemType.TOKEN_VERIFICATION_FAILED);
+        assertThat(curveJwsService.parseToken(jwsService.createToken(subject, future)).getLeft())
+                .hasValue(ProblemType.TOKEN_VERIFICATION_FAILED);
+    }
+
     @Test
     void should_failParsingJws_when_wrongAudience() {
         should_failParsing_when_wrongAudience(jwsService);
@@ -131,6 +207,9 @@ class JwtServiceTest {
 
         // then
         assertThat(parseResult.getLeft()).hasValue(ProblemType.EXPIRED_JWT);
+        assertThat(meterRegistry.get(JwtMetrics.TIMER_NAME)
+                .tag("outcome", ProblemType.EXPIRED_JWT.name())
+                .timer().count()).isEqualTo(1);
     }
 
     @Test
@@ -145,7 +224,7 @@ class JwtServiceTest {
 
         given(properties.jws().publicKey()).willReturn(anotherKey.toRSAPublicKey());
         given(properties.jws().privateKey()).willReturn(anotherKey.toRSAPrivateKey());
-        var anotherJwsService = new JwsService(clock, properties);
+        var anotherJwsService = new JwsService(clock, properties, meterRegistry);
 
         // when
         var parseResult = anotherJwsService.parseToken(token);
@@ -154,13 +233,38 @@ class JwtServiceTest {
         assertThat(parseResult.getLeft()).hasValue(ProblemType.TOKEN_VERIFICATION_FAILED);
     }
 
+    @Test
+    void should_parseJws_when_signedByARetiredKey() throws JOSEException {
+
+        // given
+        var token = jwsService.createToken(subject, future);
+
+        var newKey = new RSAKeyGenerator(2048).generate();
+        var retiredKey = new MyProperties.Jws.VerificationKey(
+                properties.jws().id(), JwsAlgorithm.RS256, properties.jws().publicKey(), null);
+
+        given(properties.jws().id()).willReturn("new-key");
+        given(properties.jws().publicKey()).willReturn(newKey.toRSAPublicKey());
+        given(properties.jws().privateKey()).willReturn(newKey.toRSAPrivateKey());
+        given(properties.jws().verificationKeys()).willReturn(List.of(retiredKey));
+        var rotatedJwsService = new JwsService(clock, properties, meterRegistry);
+
+        // when
+        var parseResult = rotatedJwsService.parseToken(token);
+
+        // then
+        assertThat(parseResult.isRight()).isTrue();
+        assertThat(rotatedJwsService.getKeyRing().getKeys()).hasSize(2);
+        assertThat(rotatedJwsService.parseToken(rotatedJwsService.createToken(subject, future)).isRight()).isTrue();
+    }
+
     @Test
     void should_failParsingJwe_when_wrongKey() {
 
         // given
         var token = jweService.createToken(subject, future);
         given(properties.jwe().key()).willReturn("D5585149683470B0E2098D28B8D3AD33");
-        var anotherJweService = new JweService(clock, properties);
+        var anotherJweService = new JweService(clock, properties, meterRegistry);
 
         // when
         var parseResult = anotherJweService.parseToken(token);
@@ -0,0 +1,77 @@
+package com.naturalprogrammer.springmvc.common.mail;
+
+import com.naturalprogrammer.springmvc.common.mail.outbox.MailOutbox;
+import com.naturalprogrammer.springmvc.common.mail.outbox.MailOutboxDispatcher;
+import com.naturalprogrammer.springmvc.common.mail.outbox.OutboxMailRepository;
+import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import static com.naturalprogrammer.springmvc.common.mail.KafkaMailSender.*;
+import static com.naturalprogrammer.springmvc.common.mail.LoggingMailSender.sentMails;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@EmbeddedKafka(partitions = 1, topics = {TOPIC, DEAD_LETTER_TOPIC})
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "my.mail-kafka.enabled=true",
+        "my.mail-kafka.partitions=1"
+})
+class KafkaMailSenderIntegrationTest extends AbstractIntegrationTest {
+
+    private static final long MAX_DELIVERY_MILLIS = 5000;
+
+    @Autowired
+    private MailSender mailSender;
+
+    @Autowired
+    private MailOutbox mailOutbox;
+
+    @Autowired
+    private MailOutboxDispatcher mailOutboxDispatcher;
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @BeforeEach
+    void setUp() {
+        sentMails().clear();
+        var container = registry.getListenerContainer(LISTENER_ID);
+        ContainerTestUtils.waitForAssignment(container, broker.getPartitionsPerTopic());
+    }
+
+    @Test
+    void should_relayOutboxMailsThroughKafka() throws Exception {
+
+        // given
+        assertThat(mailSender).isInstanceOf(KafkaMailSender.class);
+        var mail = new MailData("foo@example.com", "Subject", "<p>Body</p>", null);
+        mailOutbox.enqueue("kafka-key", mail);
+
+        // when
+        var startedAt = System.currentTimeMillis();
+        mailOutboxDispatcher.dispatch();
+
+        // then
+        assertThat(outboxMailRepository.countByPendingTrue()).isZero();
+        while (sentMails().isEmpty()) {
+            assertThat(System.currentTimeMillis() - startedAt)
+                    .as("Mail delivery millis")
+                    .isLessThan(MAX_DELIVERY_MILLIS);
+            Thread.sleep(10);
+        }
+        assertThat(sentMails()).containsExactly(mail);
+    }
+}
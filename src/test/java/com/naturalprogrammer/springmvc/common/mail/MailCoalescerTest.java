@@ -0,0 +1,88 @@
+package com.naturalprogrammer.springmvc.common.mail;
+
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.naturalprogrammer.springmvc.common.mail.MailCoalescer.SUPPRESSED_COUNTER_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class MailCoalescerTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(5);
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MailCoalescer subject = new MailCoalescer(properties(), meterRegistry, nanoTime::get);
+
+    private static MyProperties properties() {
+        var properties = mock(MyProperties.class);
+        given(properties.mailCoalescing()).willReturn(new MyProperties.MailCoalescing(WINDOW, 100));
+        return properties;
+    }
+
+    @Test
+    void should_suppressRepeatedMail_withinWindow() {
+
+        // when
+        var first = subject.tryAcquire("key1", "verification");
+        var second = subject.tryAcquire("key1", "verification");
+        var other = subject.tryAcquire("key2", "verification");
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(other).isTrue();
+        assertThat(meterRegistry.get(SUPPRESSED_COUNTER_NAME).tag("mail", "verification").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void should_reuseSuppressedCounter_perMail() {
+
+        // when
+        subject.tryAcquire("key5", "verification");
+        subject.tryAcquire("key5", "verification");
+        subject.tryAcquire("key5", "verification");
+        subject.tryAcquire("key6", "password-reset");
+        subject.tryAcquire("key6", "password-reset");
+
+        // then
+        assertThat(meterRegistry.get(SUPPRESSED_COUNTER_NAME).counters()).hasSize(2);
+        assertThat(meterRegistry.get(SUPPRESSED_COUNTER_NAME).tag("mail", "verification").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get(SUPPRESSED_COUNTER_NAME).tag("mail", "password-reset").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void should_allowMail_afterWindow() {
+
+        // given
+        subject.tryAcquire("key3", "verification");
+
+        // when
+        nanoTime.addAndGet(WINDOW.plusSeconds(1).toNanos());
+
+        // then
+        assertThat(subject.tryAcquire("key3", "verification")).isTrue();
+    }
+
+    @Test
+    void should_allowMail_afterRelease() {
+
+        // given
+        subject.tryAcquire("key4", "verification");
+
+        // when
+        subject.release("key4");
+
+        // then
+        assertThat(subject.tryAcquire("key4", "verification")).isTrue();
+    }
+}
@@ -0,0 +1,73 @@
+package com.naturalprogrammer.springmvc.common.mail;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailRingBufferTest {
+
+    private final MailRingBuffer subject = new MailRingBuffer(3);
+
+    private static MailData mail(int i) {
+        return new MailData("user" + i + "@example.com", "Subject " + i, "Body " + i, null);
+    }
+
+    @Test
+    void should_keepLatestMails_when_full() {
+
+        // when
+        IntStream.range(0, 5).forEach(i -> subject.add(mail(i)));
+
+        // then
+        assertThat(subject.asList()).containsExactly(mail(2), mail(3), mail(4));
+        assertThat(subject.appended()).isEqualTo(5);
+        assertThat(subject.dropped()).isEqualTo(2);
+    }
+
+    @Test
+    void should_clear() {
+
+        // given
+        subject.add(mail(0));
+
+        // when
+        subject.asList().clear();
+        subject.add(mail(1));
+
+        // then
+        assertThat(subject.asList()).containsExactly(mail(1));
+    }
+
+    @Test
+    void shouldNot_loseMails_when_appendedConcurrently() throws Exception {
+
+        // given
+        var buffer = new MailRingBuffer(10_000);
+
+        // when
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            IntStream.range(0, 10_000).forEach(i -> executor.execute(() -> buffer.add(mail(i))));
+        }
+
+        // then
+        assertThat(buffer.asList()).hasSize(10_000).doesNotContainNull();
+        assertThat(buffer.dropped()).isZero();
+    }
+
+    @Test
+    void shouldNot_readUnwrittenSlots_when_appendedConcurrently() throws Exception {
+
+        // given
+        var buffer = new MailRingBuffer(100);
+
+        // when, then
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            IntStream.range(0, 100_000).forEach(i -> executor.execute(() -> buffer.add(mail(i))));
+            for (var i = 0; i < 1000; i++)
+                assertThat(buffer.asList()).doesNotContainNull();
+        }
+    }
+}
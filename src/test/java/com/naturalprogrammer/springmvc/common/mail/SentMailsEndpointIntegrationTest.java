@@ -0,0 +1,72 @@
+package com.naturalprogrammer.springmvc.common.mail;
+
+import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
+import com.naturalprogrammer.springmvc.user.domain.Role;
+import com.naturalprogrammer.springmvc.user.features.login.AuthTokenCreator;
+import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Set;
+
+import static com.naturalprogrammer.springmvc.common.mail.LoggingMailSender.sentMails;
+import static com.naturalprogrammer.springmvc.helpers.MyTestUtils.futureTime;
+import static com.naturalprogrammer.springmvc.user.UserTestUtils.randomUser;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SentMailsEndpointIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthTokenCreator authTokenCreator;
+
+    @Autowired
+    private LoggingMailSender mailSender;
+
+    @BeforeEach
+    void setUp() {
+        sentMails().clear();
+    }
+
+    @Test
+    void admin_should_getSentMails() throws Exception {
+
+        // given
+        var admin = randomUser();
+        admin.setRoles(Set.of(Role.VERIFIED, Role.ADMIN));
+        admin = userRepository.save(admin);
+        var accessToken = authTokenCreator.createAccessToken(admin.getIdStr(), futureTime().toInstant());
+        mailSender.send(new MailData("foo@example.com", "Hello", "<p>Hi</p>", null));
+
+        // when, then
+        mvc.perform(get("/actuator/mails")
+                        .header(AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].to").value("foo@example.com"))
+                .andExpect(jsonPath("$[0].subject").value("Hello"))
+                .andExpect(jsonPath("$[0].bodyHtml").value("<p>Hi</p>"));
+    }
+
+    @Test
+    void nonAdmin_shouldNot_getSentMails() throws Exception {
+
+        // given
+        var user = randomUser();
+        user.setRoles(Set.of(Role.VERIFIED));
+        user = userRepository.save(user);
+        var accessToken = authTokenCreator.createAccessToken(user.getIdStr(), futureTime().toInstant());
+
+        // when, then
+        mvc.perform(get("/actuator/mails")
+                        .header(AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isForbidden());
+    }
+}
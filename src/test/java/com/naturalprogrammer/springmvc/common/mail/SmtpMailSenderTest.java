@@ -0,0 +1,88 @@
+package com.naturalprogrammer.springmvc.common.mail;
+
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.naturalprogrammer.springmvc.common.mail.SmtpMailSender.SENT_COUNTER_NAME;
+import static com.naturalprogrammer.springmvc.common.mail.SmtpTransportPool.OPENED_COUNTER_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class SmtpMailSenderTest {
+
+    private static final int MAX_CONNECTIONS = 2;
+
+    private final MyProperties properties = mock(MyProperties.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+
+    private SmtpStub smtpStub;
+    private SmtpMailSender subject;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpStub = new SmtpStub();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(smtpStub.port());
+        given(properties.smtpPool()).willReturn(
+                new MyProperties.SmtpPool(MAX_CONNECTIONS, Duration.ofMinutes(1), Duration.ofSeconds(5)));
+        subject = new SmtpMailSender(javaMailSender, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        subject.close();
+        smtpStub.close();
+    }
+
+    private static List<MailData> mails(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new MailData("user" + i + "@example.com", "Subject " + i, "<p>Body " + i + "</p>", null))
+                .toList();
+    }
+
+    @Test
+    void should_sendBatchesOverPooledConnections() {
+
+        // when
+        var firstFailures = subject.sendAll(mails(20));
+        var secondFailures = subject.sendAll(mails(20));
+
+        // then
+        assertThat(firstFailures).isEmpty();
+        assertThat(secondFailures).isEmpty();
+        assertThat(smtpStub.mails()).isEqualTo(40);
+        assertThat(smtpStub.connections()).isLessThanOrEqualTo(MAX_CONNECTIONS);
+        assertThat(meterRegistry.get(OPENED_COUNTER_NAME).counter().count()).isLessThanOrEqualTo(MAX_CONNECTIONS);
+        assertThat(meterRegistry.get(SENT_COUNTER_NAME).tag("outcome", "success").counter().count()).isEqualTo(40);
+    }
+
+    @Test
+    void should_reportFailures_when_serverIsDown() throws Exception {
+
+        // given
+        int closedPort;
+        try (var socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        javaMailSender.setPort(closedPort);
+        var mails = mails(3);
+
+        // when
+        var failures = subject.sendAll(mails);
+
+        // then
+        assertThat(failures).containsOnlyKeys(mails);
+        assertThat(meterRegistry.get(SENT_COUNTER_NAME).tag("outcome", "failure").counter().count()).isEqualTo(3);
+    }
+}
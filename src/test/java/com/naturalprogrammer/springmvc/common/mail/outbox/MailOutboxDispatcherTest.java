@@ -0,0 +1,157 @@
+package com.naturalprogrammer.springmvc.common.mail.outbox;
+
+import com.naturalprogrammer.springmvc.common.mail.MailData;
+import com.naturalprogrammer.springmvc.common.mail.MailSender;
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.naturalprogrammer.springmvc.common.mail.outbox.MailOutboxDispatcher.FAILED_COUNTER_NAME;
+import static com.naturalprogrammer.springmvc.common.mail.outbox.MailOutboxDispatcher.LAG_TIMER_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MailOutboxDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(10);
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    private final Instant now = Instant.now();
+    private final Clock clock = Clock.fixed(now, ZoneOffset.UTC);
+    private final OutboxMailRepository outboxMailRepository = mock(OutboxMailRepository.class);
+    private final MailSender mailSender = mock(MailSender.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final MyProperties properties = mock(MyProperties.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MailOutboxDispatcher subject;
+    private OutboxMail mail;
+
+    @BeforeEach
+    void setUp() {
+        given(properties.mailOutbox()).willReturn(new MyProperties.MailOutbox(
+                false, Duration.ofSeconds(1), Duration.ofHours(1), 10, MAX_ATTEMPTS, RETRY_BACKOFF, Duration.ofDays(7), LEASE));
+        subject = new MailOutboxDispatcher(
+                outboxMailRepository, mailSender, new TransactionTemplate(transactionManager), clock, properties, meterRegistry);
+
+        mail = new OutboxMail();
+        mail.setId(UUID.randomUUID());
+        mail.setIdempotencyKey("verification:" + UUID.randomUUID());
+        mail.setRecipient("foo@example.com");
+        mail.setSubject("Subject");
+        mail.setBodyHtml("Body");
+        mail.setCreatedAt(now.minusSeconds(5));
+        mail.setNextAttemptAt(mail.getCreatedAt());
+        mail.setPending(true);
+        given(outboxMailRepository.lockDue(now, 10)).willReturn(List.of(mail));
+        given(outboxMailRepository.lockAllById(List.of(mail.getId()))).willReturn(List.of(mail));
+    }
+
+    private void failSending(Exception e) {
+        given(mailSender.sendAll(any())).willAnswer(invocation ->
+                Map.of(invocation.<List<MailData>>getArgument(0).get(0), e));
+    }
+
+    @Test
+    void should_sendAndMarkSent() {
+
+        // when
+        var attempted = subject.dispatch();
+
+        // then
+        assertThat(attempted).isEqualTo(1);
+        verify(mailSender).sendAll(List.of(mail.toMailData()));
+        assertThat(mail.isPending()).isFalse();
+        assertThat(mail.getSentAt()).isEqualTo(now);
+        assertThat(meterRegistry.get(LAG_TIMER_NAME).timer().totalTime(TimeUnit.SECONDS))
+                .isEqualTo(5);
+    }
+
+    @Test
+    void should_claimWithLease_andSendOutsideTransactions() {
+
+        // given
+        given(mailSender.sendAll(any())).willAnswer(invocation -> {
+            assertThat(mail.getNextAttemptAt()).isEqualTo(now.plus(LEASE).truncatedTo(ChronoUnit.MICROS));
+            verify(transactionManager, times(1)).commit(any()); // the claim
+            return Map.of();
+        });
+
+        // when
+        subject.dispatch();
+
+        // then
+        verify(transactionManager, times(2)).commit(any()); // the claim and the marking
+        assertThat(mail.isPending()).isFalse();
+    }
+
+    @Test
+    void shouldNot_markMail_when_leaseExpiredAndAnotherDispatcherClaimedIt() {
+
+        // given
+        given(mailSender.sendAll(any())).willAnswer(invocation -> {
+            mail.setNextAttemptAt(now.plus(LEASE).plusSeconds(1)); // claimed again, by another dispatcher
+            return Map.of();
+        });
+
+        // when
+        subject.dispatch();
+
+        // then
+        assertThat(mail.isPending()).isTrue();
+        assertThat(mail.getSentAt()).isNull();
+    }
+
+    @Test
+    void should_retryWithBackoff_when_sendingFails() {
+
+        // given
+        mail.setAttempts(1);
+        failSending(new MailSendException("SMTP down"));
+
+        // when
+        subject.dispatch();
+
+        // then
+        assertThat(mail.isPending()).isTrue();
+        assertThat(mail.getAttempts()).isEqualTo(2);
+        assertThat(mail.getNextAttemptAt()).isEqualTo(now.plus(RETRY_BACKOFF.multipliedBy(2)));
+        assertThat(mail.getLastError()).contains("SMTP down");
+        assertThat(meterRegistry.get(FAILED_COUNTER_NAME).tag("outcome", "retry").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_giveUp_after_maxAttempts() {
+
+        // given
+        mail.setAttempts(MAX_ATTEMPTS - 1);
+        failSending(new MailSendException("Mailbox unavailable"));
+
+        // when
+        subject.dispatch();
+
+        // then
+        assertThat(mail.isPending()).isFalse();
+        assertThat(mail.getSentAt()).isNull();
+        assertThat(meterRegistry.get(FAILED_COUNTER_NAME).tag("outcome", "abandoned").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,77 @@
+package com.naturalprogrammer.springmvc.common.mail.outbox;
+
+import com.naturalprogrammer.springmvc.common.mail.MailData;
+import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static com.naturalprogrammer.springmvc.common.mail.LoggingMailSender.sentMails;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailOutboxIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private MailOutbox mailOutbox;
+
+    @Autowired
+    private MailOutboxDispatcher mailOutboxDispatcher;
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    private final MailData mail = new MailData("foo@example.com", "Subject", "Body", null);
+
+    @BeforeEach
+    void setUp() {
+        sentMails().clear();
+    }
+
+    @Test
+    void should_queueOnce_when_sameKeyIsPending() {
+
+        // when
+        mailOutbox.enqueue("key1", mail);
+        mailOutbox.enqueue("key1", mail);
+
+        // then
+        assertThat(outboxMailRepository.countByPendingTrue()).isEqualTo(1);
+    }
+
+    @Test
+    void should_sendOnlyOnce() {
+
+        // given
+        mailOutbox.enqueue("key2", mail);
+
+        // when
+        var firstAttempted = mailOutboxDispatcher.dispatch();
+        var secondAttempted = mailOutboxDispatcher.dispatch();
+
+        // then
+        assertThat(firstAttempted).isEqualTo(1);
+        assertThat(secondAttempted).isZero();
+        assertThat(sentMails()).containsExactly(mail);
+        assertThat(outboxMailRepository.findAll())
+                .singleElement()
+                .satisfies(outboxMail -> {
+                    assertThat(outboxMail.isPending()).isFalse();
+                    assertThat(outboxMail.getSentAt()).isNotNull();
+                });
+    }
+
+    @Test
+    void should_queueAgain_when_previousMailWasSent() {
+
+        // given
+        mailOutbox.enqueue("key3", mail);
+        mailOutboxDispatcher.dispatch();
+
+        // when
+        mailOutbox.enqueue("key3", mail);
+
+        // then
+        assertThat(outboxMailRepository.countByPendingTrue()).isEqualTo(1);
+        assertThat(outboxMailRepository.count()).isEqualTo(2);
+    }
+}
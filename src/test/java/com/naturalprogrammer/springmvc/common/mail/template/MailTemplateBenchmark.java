@@ -0,0 +1,56 @@
+package com.naturalprogrammer.springmvc.common.mail.template;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rendering a verification mail body through {@link MailTemplates}
+ * with formatting it through a MessageSource, as was done before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class MailTemplateBenchmark {
+
+    private static final String MESSAGE_KEY = "verification-mail-body";
+
+    private StaticMessageSource messageSource;
+    private MailTemplates mailTemplates;
+    private String name;
+    private String homepage;
+    private String token;
+
+    @Setup
+    public void setUp() {
+
+        messageSource = new StaticMessageSource();
+        messageSource.addMessage(MESSAGE_KEY, Locale.ENGLISH, """
+                Hello {0}<br><br>,\
+                Please <a href="{1}/email-verifications?token={2}">Click here</a> \
+                to verify your email registered at {1}""");
+
+        mailTemplates = new MailTemplates(new DefaultResourceLoader());
+        name = "Sanjay Patel";
+        homepage = "https://www.example.com";
+        token = UUID.randomUUID().toString().repeat(8); // about as long as a JWE
+    }
+
+    @Benchmark
+    public String messageSource() {
+        return messageSource.getMessage(MESSAGE_KEY, new Object[]{name, homepage, token}, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public MailBody compiledTemplates() { // renders the text part too
+        return mailTemplates.render("verification", Map.of("name", name, "homepage", homepage, "token", token));
+    }
+}
@@ -0,0 +1,60 @@
+package com.naturalprogrammer.springmvc.common.mail.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailTemplateTest {
+
+    @Test
+    void should_renderVariables() {
+
+        // given
+        var template = MailTemplate.compile("Hello {{ name }}, visit {{homepage}}/x?token={{token}}.", false);
+
+        // when
+        var rendered = template.render(Map.of("name", "Sanjay", "homepage", "https://example.com", "token", "abc"));
+
+        // then
+        assertThat(rendered).isEqualTo("Hello Sanjay, visit https://example.com/x?token=abc.");
+    }
+
+    @Test
+    void should_escapeValues_when_html() {
+
+        // given
+        var html = MailTemplate.compile("<p>Hello {{name}}</p>", true);
+        var text = MailTemplate.compile("Hello {{name}}", false);
+        var values = Map.of("name", "<b>O'Neil & \"Co\"</b>");
+
+        // when, then
+        assertThat(html.render(values)).isEqualTo("<p>Hello &lt;b&gt;O&#39;Neil &amp; &quot;Co&quot;&lt;/b&gt;</p>");
+        assertThat(text.render(values)).isEqualTo("Hello <b>O'Neil & \"Co\"</b>");
+    }
+
+    @Test
+    void should_renderTemplateWithoutVariables() {
+        assertThat(MailTemplate.compile("Just text", true).render(Map.of())).isEqualTo("Just text");
+    }
+
+    @Test
+    void shouldNot_render_when_valueIsMissing() {
+
+        // given
+        var template = MailTemplate.compile("Hello {{name}}", false);
+
+        // when, then
+        assertThatThrownBy(() -> template.render(Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("name");
+    }
+
+    @Test
+    void shouldNot_compile_when_variableIsUnclosed() {
+        assertThatThrownBy(() -> MailTemplate.compile("Hello {{name", false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
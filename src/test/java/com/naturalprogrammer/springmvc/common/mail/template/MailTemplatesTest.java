@@ -0,0 +1,60 @@
+package com.naturalprogrammer.springmvc.common.mail.template;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailTemplatesTest {
+
+    private final MailTemplates subject = new MailTemplates(new DefaultResourceLoader());
+
+    private final Map<String, String> values = Map.of(
+            "name", "Sanjay",
+            "homepage", "https://example.com",
+            "token", "abc"
+    );
+
+    @AfterEach
+    void tearDown() {
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Test
+    void should_renderHtmlAndTextParts() {
+
+        // when
+        var body = subject.render("verification", values);
+
+        // then
+        assertThat(body.html()).contains("<a href=\"https://example.com/email-verifications?token=abc\">");
+        assertThat(body.text())
+                .contains("https://example.com/email-verifications?token=abc")
+                .doesNotContain("<");
+    }
+
+    @Test
+    void should_fallBackToDefaultTemplate_when_localeHasNone() {
+
+        // given
+        LocaleContextHolder.setLocale(Locale.CANADA_FRENCH);
+
+        // when
+        var body = subject.render("forgot-password", values);
+
+        // then
+        assertThat(body.text()).startsWith("Hello Sanjay,");
+    }
+
+    @Test
+    void shouldNot_render_when_templateIsUnknown() {
+        assertThatThrownBy(() -> subject.render("unknown", values))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
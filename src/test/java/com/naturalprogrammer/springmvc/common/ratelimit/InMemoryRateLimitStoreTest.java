@@ -0,0 +1,30 @@
+package com.naturalprogrammer.springmvc.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitStoreTest {
+
+    private static final Duration PERIOD = Duration.ofMinutes(1);
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final InMemoryRateLimitStore subject = new InMemoryRateLimitStore(100, PERIOD, nanoTime::get);
+
+    @Test
+    void should_rejectAfterCapacity_andRefillOverTime() {
+
+        // when, then
+        assertThat(subject.tryConsume("key", 2, PERIOD)).isTrue();
+        assertThat(subject.tryConsume("key", 2, PERIOD)).isTrue();
+        assertThat(subject.tryConsume("key", 2, PERIOD)).isFalse();
+        assertThat(subject.tryConsume("another-key", 2, PERIOD)).isTrue();
+
+        nanoTime.addAndGet(PERIOD.toNanos() / 2); // refills one token
+        assertThat(subject.tryConsume("key", 2, PERIOD)).isTrue();
+        assertThat(subject.tryConsume("key", 2, PERIOD)).isFalse();
+    }
+}
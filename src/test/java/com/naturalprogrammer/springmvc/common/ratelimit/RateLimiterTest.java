@@ -0,0 +1,134 @@
+package com.naturalprogrammer.springmvc.common.ratelimit;
+
+import com.naturalprogrammer.springmvc.common.CommonUtils;
+import com.naturalprogrammer.springmvc.common.error.ProblemBuilder;
+import com.naturalprogrammer.springmvc.common.error.ProblemType;
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectFactory;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.naturalprogrammer.springmvc.helpers.MyTestUtils.mockProblemBuilder;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class RateLimiterTest {
+
+    private static final Duration PERIOD = Duration.ofMinutes(1);
+    private static final String LOGIN = "login";
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final CommonUtils commonUtils = mock(CommonUtils.class);
+    private final MyProperties properties = mock(MyProperties.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @SuppressWarnings("unchecked")
+    private final ObjectFactory<ProblemBuilder> problemBuilder = mock(ObjectFactory.class);
+
+    private final RateLimiter subject = new RateLimiter(
+            new InMemoryRateLimitStore(100, PERIOD, nanoTime::get),
+            commonUtils,
+            properties,
+            meterRegistry,
+            problemBuilder
+    );
+
+    @BeforeEach
+    void setUp() {
+        given(properties.rateLimit()).willReturn(new MyProperties.RateLimit(2, 3, PERIOD, 100));
+        mockProblemBuilder(problemBuilder);
+    }
+
+    @Test
+    void should_throttleLogin_perEmail_ignoringCase() {
+
+        // given
+        given(commonUtils.getClientIp()).willReturn(Optional.empty());
+
+        // when, then
+        assertThat(subject.check(LOGIN, "user@example.com")).isEmpty();
+        assertThat(subject.check(LOGIN, "USER@example.com")).isEmpty();
+        var problem = subject.check(LOGIN, "User@Example.com");
+
+        assertThat(problem).hasValueSatisfying(p ->
+                assertThat(p.status()).isEqualTo(ProblemType.TOO_MANY_REQUESTS.getStatus().value()));
+        assertThat(subject.check(LOGIN, "another@example.com")).isEmpty();
+        assertThat(meterRegistry.get(RateLimiter.REJECTED_COUNTER_NAME)
+                .tag("action", LOGIN)
+                .tag("key", "email")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_throttleLogin_perClientIp_acrossEmails() {
+
+        // given
+        given(commonUtils.getClientIp()).willReturn(Optional.of("203.0.113.7"));
+
+        // when, then
+        assertThat(subject.check(LOGIN, "user1@example.com")).isEmpty();
+        assertThat(subject.check(LOGIN, "user2@example.com")).isEmpty();
+        assertThat(subject.check(LOGIN, "user3@example.com")).isEmpty();
+        assertThat(subject.check(LOGIN, "user4@example.com")).isPresent();
+        assertThat(meterRegistry.get(RateLimiter.REJECTED_COUNTER_NAME)
+                .tag("action", LOGIN)
+                .tag("key", "ip")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_reuseRejectedCounter() {
+
+        // given
+        given(commonUtils.getClientIp()).willReturn(Optional.empty());
+        subject.check(LOGIN, "user@example.com");
+        subject.check(LOGIN, "user@example.com");
+
+        // when
+        subject.check(LOGIN, "user@example.com");
+        subject.check(LOGIN, "user@example.com");
+        subject.check(LOGIN, "user@example.com");
+
+        // then
+        assertThat(meterRegistry.get(RateLimiter.REJECTED_COUNTER_NAME).counters()).hasSize(1);
+        assertThat(meterRegistry.get(RateLimiter.REJECTED_COUNTER_NAME)
+                .tag("action", LOGIN)
+                .tag("key", "email")
+                .counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void should_keepActionsApart() {
+
+        // given
+        given(commonUtils.getClientIp()).willReturn(Optional.empty());
+        subject.check(LOGIN, "user@example.com");
+        subject.check(LOGIN, "user@example.com");
+
+        // when, then
+        assertThat(subject.check(LOGIN, "user@example.com")).isPresent();
+        assertThat(subject.check("forgot-password", "user@example.com")).isEmpty();
+    }
+
+    @Test
+    void should_allowLoginAgain_afterRefill() {
+
+        // given
+        given(commonUtils.getClientIp()).willReturn(Optional.empty());
+        subject.check(LOGIN, "user@example.com");
+        subject.check(LOGIN, "user@example.com");
+        assertThat(subject.check(LOGIN, "user@example.com")).isPresent();
+
+        // when
+        nanoTime.addAndGet(PERIOD.toNanos() / 2); // refills one token
+
+        // then
+        assertThat(subject.check(LOGIN, "user@example.com")).isEmpty();
+    }
+}
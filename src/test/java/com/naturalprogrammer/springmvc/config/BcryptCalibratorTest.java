@@ -0,0 +1,32 @@
+package com.naturalprogrammer.springmvc.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BcryptCalibratorTest {
+
+    private static final long MILLIS_AT_MIN_STRENGTH = 50;
+
+    private static int calibrate(Duration budget) {
+        return BcryptCalibrator.calibrate(budget, strength -> Duration.ofMillis(MILLIS_AT_MIN_STRENGTH).toNanos());
+    }
+
+    @Test
+    void should_pickHighestStrengthWithinBudget() {
+        assertThat(calibrate(Duration.ofMillis(250))).isEqualTo(BcryptCalibrator.MIN_STRENGTH + 2); // 200 ms
+        assertThat(calibrate(Duration.ofMillis(400))).isEqualTo(BcryptCalibrator.MIN_STRENGTH + 3); // 400 ms
+    }
+
+    @Test
+    void shouldNot_goBelowMinStrength() {
+        assertThat(calibrate(Duration.ofMillis(1))).isEqualTo(BcryptCalibrator.MIN_STRENGTH);
+    }
+
+    @Test
+    void shouldNot_exceedMaxStrength() {
+        assertThat(calibrate(Duration.ofHours(1))).isEqualTo(BcryptCalibrator.MAX_STRENGTH);
+    }
+}
@@ -0,0 +1,74 @@
+package com.naturalprogrammer.springmvc.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class BoundedPasswordEncoderTest {
+
+    private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BoundedPasswordEncoder subject = new BoundedPasswordEncoder(
+            delegate,
+            new MyProperties.PasswordHashing(1, 1, null),
+            meterRegistry
+    );
+
+    @AfterEach
+    void tearDown() {
+        subject.close();
+    }
+
+    @Test
+    void should_delegate() {
+
+        // given
+        given(delegate.encode("password")).willReturn("{bcrypt}hash");
+        given(delegate.matches("password", "{bcrypt}hash")).willReturn(true);
+        given(delegate.upgradeEncoding("{bcrypt}hash")).willReturn(true);
+
+        // when, then
+        assertThat(subject.encode("password")).isEqualTo("{bcrypt}hash");
+        assertThat(subject.matches("password", "{bcrypt}hash")).isTrue();
+        assertThat(subject.upgradeEncoding("{bcrypt}hash")).isTrue();
+        assertThat(meterRegistry.get(BoundedPasswordEncoder.TIMER_NAME).tag("operation", "encode").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void should_reject_when_saturated() throws Exception {
+
+        // given
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        given(delegate.encode("slow")).will(invocation -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+
+        var running = CompletableFuture.supplyAsync(() -> subject.encode("slow"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        var queued = CompletableFuture.supplyAsync(() -> subject.encode("slow"));
+        while (meterRegistry.get(BoundedPasswordEncoder.QUEUE_GAUGE_NAME).gauge().value() < 1)
+            Thread.sleep(10);
+
+        // when, then
+        assertThatThrownBy(() -> subject.encode("slow")).isInstanceOf(PasswordHashingRejectedException.class);
+        assertThat(meterRegistry.get(BoundedPasswordEncoder.REJECTED_COUNTER_NAME).counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+    }
+}
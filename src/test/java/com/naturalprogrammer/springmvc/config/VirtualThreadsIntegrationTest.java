@@ -0,0 +1,74 @@
+package com.naturalprogrammer.springmvc.config;
+
+import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT) // for a real Tomcat
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadsIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    @Qualifier(APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private ServletWebServerApplicationContext webServerContext;
+
+    @Test
+    void should_runAsyncTasksOnVirtualThreads() throws Exception {
+
+        // when
+        var virtual = applicationTaskExecutor
+                .submitCompletable(() -> Thread.currentThread().isVirtual())
+                .get();
+
+        // then
+        assertThat(virtual).isTrue();
+    }
+
+    @Test
+    void should_runScheduledTasksOnVirtualThreads() throws Exception {
+
+        // given, the scheduler that drives the @Scheduled methods, e.g. MailOutboxPoller
+        var virtual = new CompletableFuture<Boolean>();
+
+        // when
+        taskScheduler.schedule(() -> virtual.complete(Thread.currentThread().isVirtual()), Instant.now());
+
+        // then
+        assertThat(virtual.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void should_handleRequestsOnVirtualThreads() throws Exception {
+
+        // given
+        var tomcat = ((TomcatWebServer) webServerContext.getWebServer()).getTomcat();
+        var requestExecutor = tomcat.getConnector().getProtocolHandler().getExecutor();
+        var virtual = new CompletableFuture<Boolean>();
+
+        // when
+        requestExecutor.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+
+        // then
+        assertThat(virtual.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
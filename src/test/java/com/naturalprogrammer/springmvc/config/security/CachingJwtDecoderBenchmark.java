@@ -0,0 +1,74 @@
+package com.naturalprogrammer.springmvc.config.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding a bearer token cold (parse + RSA verification, as NimbusJwtDecoder does)
+ * with decoding an already verified token through {@link CachingJwtDecoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class CachingJwtDecoderBenchmark {
+
+    private JwtDecoder coldDecoder;
+    private JwtDecoder cachingDecoder;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        var key = new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+        var now = Instant.now();
+        var claims = new JWTClaimsSet.Builder()
+                .subject(UUID.randomUUID().toString())
+                .issuer("http://www.example.com")
+                .audience("http://www.example.com")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(1800)))
+                .claim("purpose", "AUTH")
+                .claim("scope", "normal")
+                .build();
+        var jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        token = jwt.serialize();
+
+        coldDecoder = NimbusJwtDecoder.withPublicKey(key.toRSAPublicKey()).build();
+        cachingDecoder = new CachingJwtDecoder(
+                NimbusJwtDecoder.withPublicKey(key.toRSAPublicKey()).build(),
+                10_000,
+                Clock.systemUTC(),
+                new SimpleMeterRegistry()
+        );
+        cachingDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt cold() {
+        return coldDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt warm() {
+        return cachingDecoder.decode(token);
+    }
+}
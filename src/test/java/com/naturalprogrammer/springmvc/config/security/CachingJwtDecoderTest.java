@@ -0,0 +1,78 @@
+package com.naturalprogrammer.springmvc.config.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class CachingJwtDecoderTest {
+
+    private final Instant now = Instant.now();
+    private final Clock clock = Clock.fixed(now, ZoneOffset.UTC);
+    private final JwtDecoder delegate = mock(JwtDecoder.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CachingJwtDecoder subject = new CachingJwtDecoder(delegate, 100, clock, meterRegistry);
+
+    private Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("foo")
+                .issuedAt(now.minusSeconds(10))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Test
+    void should_verifyTokenOnlyOnce() {
+
+        // given
+        var jwt = jwt("token1", now.plusSeconds(60));
+        given(delegate.decode("token1")).willReturn(jwt);
+
+        // when
+        var first = subject.decode("token1");
+        var second = subject.decode("token1");
+
+        // then
+        assertThat(first).isSameAs(jwt);
+        assertThat(second).isSameAs(jwt);
+        verify(delegate, times(1)).decode("token1");
+        assertThat(meterRegistry.get(CachingJwtDecoder.VERIFY_TIMER_NAME).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNot_cacheExpiredToken() {
+
+        // given
+        given(delegate.decode("token2")).willReturn(jwt("token2", now.minusSeconds(1)));
+
+        // when
+        subject.decode("token2");
+        subject.decode("token2");
+
+        // then
+        verify(delegate, times(2)).decode("token2");
+    }
+
+    @Test
+    void shouldNot_cacheFailedVerification() {
+
+        // given
+        given(delegate.decode("token3")).willThrow(new BadJwtException("Bad signature"));
+
+        // when, then
+        assertThatThrownBy(() -> subject.decode("token3")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> subject.decode("token3")).isInstanceOf(BadJwtException.class);
+        verify(delegate, times(2)).decode("token3");
+    }
+}
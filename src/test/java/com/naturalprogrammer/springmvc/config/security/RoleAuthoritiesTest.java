@@ -0,0 +1,56 @@
+package com.naturalprogrammer.springmvc.config.security;
+
+import com.naturalprogrammer.springmvc.user.domain.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoleAuthoritiesTest {
+
+    @Test
+    void should_shareAuthoritiesOfEveryRoleCombination() {
+
+        for (int mask = 0; mask < 1 << Role.values().length; mask++) {
+
+            // given
+            var roles = EnumSet.noneOf(Role.class);
+            for (var role : Role.values())
+                if ((mask & role.mask()) != 0)
+                    roles.add(role);
+
+            // when
+            var authorities = RoleAuthorities.of(Role.mask(roles));
+
+            // then
+            assertThat(authorities)
+                    .extracting(GrantedAuthority::getAuthority)
+                    .containsExactlyInAnyOrderElementsOf(roles.stream().map(Role::authority).toList());
+            assertThat(RoleAuthorities.of(mask)).isSameAs(authorities);
+        }
+    }
+
+    @Test
+    void should_maskRolesOnly() {
+
+        // given
+        var authorities = List.of(
+                new SimpleGrantedAuthority("ROLE_ADMIN"),
+                new SimpleGrantedAuthority("SCOPE_normal"),
+                new SimpleGrantedAuthority("ROLE_VERIFIED")
+        );
+
+        // when
+        var mask = RoleAuthorities.mask(authorities);
+
+        // then
+        assertThat(mask).isEqualTo(Role.mask(Set.of(Role.ADMIN, Role.VERIFIED)));
+        assertThat(Role.isAdmin(mask)).isTrue();
+        assertThat(Role.isAdmin(Role.mask(Set.of(Role.ADMIN, Role.UNVERIFIED)))).isFalse();
+    }
+}
@@ -0,0 +1,64 @@
+package com.naturalprogrammer.springmvc.config.security;
+
+import com.naturalprogrammer.springmvc.user.domain.Role;
+import com.naturalprogrammer.springmvc.user.services.UserPrincipal;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares building the authorities of a principal and checking for an admin,
+ * as was done before with streams and sets, with the role mask. Run with -prof gc
+ * to see that the latter allocate nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class RoleAuthorizationBenchmark {
+
+    private UserPrincipal principal;
+    private List<GrantedAuthority> authorities;
+
+    @Setup
+    public void setUp() {
+        principal = new UserPrincipal(UUID.randomUUID(), Set.of(Role.ADMIN, Role.VERIFIED), Instant.now(), 1);
+        authorities = List.of(
+                new SimpleGrantedAuthority(Role.ADMIN.authority()),
+                new SimpleGrantedAuthority(Role.VERIFIED.authority()),
+                new SimpleGrantedAuthority("SCOPE_normal")
+        );
+    }
+
+    @Benchmark
+    public Collection<SimpleGrantedAuthority> authoritiesByStream() {
+        return principal.roles().stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> authoritiesByMask() {
+        return RoleAuthorities.of(principal.roleMask());
+    }
+
+    @Benchmark
+    public boolean isAdminBySets() {
+        return authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet())
+                .containsAll(Set.of(Role.VERIFIED.authority(), Role.ADMIN.authority()));
+    }
+
+    @Benchmark
+    public boolean isAdminByMask() {
+        return Role.isAdmin(RoleAuthorities.mask(authorities));
+    }
+}
@@ -3,7 +3,9 @@ package com.naturalprogrammer.springmvc.user.features.change_mail;
 import com.naturalprogrammer.springmvc.common.MessageGetter;
 import com.naturalprogrammer.springmvc.common.jwt.JweService;
 import com.naturalprogrammer.springmvc.common.mail.MailData;
-import com.naturalprogrammer.springmvc.common.mail.MailSender;
+import com.naturalprogrammer.springmvc.common.mail.template.MailBody;
+import com.naturalprogrammer.springmvc.common.mail.template.MailTemplates;
+import com.naturalprogrammer.springmvc.common.mail.outbox.MailOutbox;
 import com.naturalprogrammer.springmvc.config.MyProperties;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.Test;
@@ -27,6 +29,7 @@ import static com.naturalprogrammer.springmvc.helpers.MyTestUtils.mockMessageGet
 import static com.naturalprogrammer.springmvc.user.UserTestUtils.FAKER;
 import static com.naturalprogrammer.springmvc.user.UserTestUtils.randomUser;
 import static com.naturalprogrammer.springmvc.user.features.verification.VerificationMailSender.VERIFICATION_TOKEN_VALID_DAYS;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 import static org.springframework.security.oauth2.core.oidc.StandardClaimNames.EMAIL;
@@ -44,7 +47,10 @@ class NewEmailVerificationMailSenderTest {
     private MessageGetter messageGetter;
 
     @Mock
-    private MailSender mailSender;
+    private MailTemplates mailTemplates;
+
+    @Mock
+    private MailOutbox mailOutbox;
 
     @Mock
     private MyProperties properties;
@@ -74,19 +80,24 @@ class NewEmailVerificationMailSenderTest {
                         EMAIL, user.getNewEmail()
                 ))).willReturn(verificationToken);
         mockMessageGetter(messageGetter);
+        given(mailTemplates.render("verification", Map.of(
+                "name", user.getDisplayName(),
+                "homepage", homepage,
+                "token", verificationToken
+        ))).willReturn(new MailBody("verification-html", "verification-text"));
         given(properties.homepage()).willReturn(homepage);
 
         // when
         subject.send(user);
 
         // then
-        verify(mailSender).send(mailCaptor.capture());
+        verify(mailOutbox).enqueue(eq("email-change:" + user.getId() + ":" + user.getNewEmail()), mailCaptor.capture());
         var mailData = mailCaptor.getValue();
         var softly = new SoftAssertions();
         softly.assertThat(mailData.to()).isEqualTo(user.getNewEmail());
         softly.assertThat(mailData.subject()).isEqualTo("verification-mail-subject");
-        softly.assertThat(mailData.bodyHtml()).isEqualTo("verification-mail-body"
-                + user.getDisplayName() + homepage + verificationToken);
+        softly.assertThat(mailData.bodyHtml()).isEqualTo("verification-html");
+        softly.assertThat(mailData.bodyText()).isEqualTo("verification-text");
         softly.assertAll();
     }
 
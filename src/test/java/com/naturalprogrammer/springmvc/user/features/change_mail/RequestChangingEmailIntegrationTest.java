@@ -1,6 +1,7 @@
 package com.naturalprogrammer.springmvc.user.features.change_mail;
 
 import com.naturalprogrammer.springmvc.common.error.ErrorCode;
+import com.naturalprogrammer.springmvc.common.mail.outbox.MailOutboxDispatcher;
 import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
 import com.naturalprogrammer.springmvc.user.UserTestUtils;
 import com.naturalprogrammer.springmvc.user.features.login.AuthTokenCreator;
@@ -25,9 +26,13 @@ import static org.springframework.http.HttpHeaders.WWW_AUTHENTICATE;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.web.util.HtmlUtils.htmlEscape;
 
 class RequestChangingEmailIntegrationTest extends AbstractIntegrationTest {
 
+    @Autowired
+    private MailOutboxDispatcher mailOutboxDispatcher;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -68,10 +73,12 @@ class RequestChangingEmailIntegrationTest extends AbstractIntegrationTest {
         user = userRepository.findById(user.getId()).orElseThrow();
         assertThat(user.getNewEmail()).isEqualTo(newEmail);
 
+        mailOutboxDispatcher.dispatch();
         assertThat(sentMails()).hasSize(1);
         var mailData = sentMails().get(0);
         assertThat(mailData.to()).isEqualTo(newEmail);
-        assertThat(mailData.bodyHtml()).contains(user.getDisplayName());
+        assertThat(mailData.bodyHtml()).contains(htmlEscape(user.getDisplayName()));
+        assertThat(mailData.bodyText()).contains(user.getDisplayName());
         assertThat(mailData.subject()).isEqualTo("Please verify your email");
     }
 
@@ -1,7 +1,9 @@
 package com.naturalprogrammer.springmvc.user.features.forgot_password;
 
 import com.naturalprogrammer.springmvc.common.error.BeanValidator;
+import com.naturalprogrammer.springmvc.common.ratelimit.RateLimiter;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import com.naturalprogrammer.springmvc.user.services.KnownEmailFilter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -30,6 +32,12 @@ class ForgotPasswordInitiatorTest {
     @Mock
     private ForgotPasswordMailSender forgotPasswordMailSender;
 
+    @Mock
+    private RateLimiter rateLimiter;
+
+    @Mock
+    private KnownEmailFilter knownEmailFilter;
+
     @InjectMocks
     private ForgotPasswordInitiator subject;
 
@@ -40,6 +48,7 @@ class ForgotPasswordInitiatorTest {
         var user = randomUser();
         var request = new ForgotPasswordRequest(user.getEmail());
         given(validator.validate(request)).willReturn(Optional.empty());
+        given(knownEmailFilter.mightExist(request.email())).willReturn(true);
         given(userRepository.findByEmail(request.email())).willReturn(Optional.of(user));
 
         // when
@@ -72,6 +81,7 @@ class ForgotPasswordInitiatorTest {
         var user = randomUser();
         var request = new ForgotPasswordRequest(user.getEmail());
         given(validator.validate(request)).willReturn(Optional.empty());
+        given(knownEmailFilter.mightExist(request.email())).willReturn(true);
         given(userRepository.findByEmail(request.email())).willReturn(Optional.empty());
 
         // when
@@ -82,4 +92,39 @@ class ForgotPasswordInitiatorTest {
         verify(forgotPasswordMailSender, never()).send(any());
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldNot_lookUpUser_when_emailIsDefinitelyUnknown() {
+
+        // given
+        var request = new ForgotPasswordRequest("imaginary.user@example.com");
+        given(validator.validate(request)).willReturn(Optional.empty());
+        given(knownEmailFilter.mightExist(request.email())).willReturn(false);
+
+        // when
+        var possibleProblem = subject.initiate(request);
+
+        // then
+        assertThat(possibleProblem).isEmpty();
+        verify(userRepository, never()).findByEmail(any());
+        verify(forgotPasswordMailSender, never()).send(any());
+    }
+
+    @Test
+    void shouldNot_initiateForgotPassword_when_throttled() {
+
+        // given
+        var user = randomUser();
+        var request = new ForgotPasswordRequest(user.getEmail());
+        var problem = randomProblem();
+        given(validator.validate(request)).willReturn(Optional.empty());
+        given(rateLimiter.check("forgot-password", request.email())).willReturn(Optional.of(problem));
+
+        // when
+        var possibleProblem = subject.initiate(request);
+
+        // then
+        assertThat(possibleProblem).hasValue(problem);
+        verify(userRepository, never()).findByEmail(any());
+        verify(forgotPasswordMailSender, never()).send(any());
+    }
+}
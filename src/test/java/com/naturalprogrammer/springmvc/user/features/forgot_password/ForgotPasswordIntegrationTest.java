@@ -1,5 +1,6 @@
 package com.naturalprogrammer.springmvc.user.features.forgot_password;
 
+import com.naturalprogrammer.springmvc.common.mail.outbox.MailOutboxDispatcher;
 import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
 import org.junit.jupiter.api.Test;
@@ -11,9 +12,13 @@ import static com.naturalprogrammer.springmvc.user.UserTestUtils.randomUser;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.web.util.HtmlUtils.htmlEscape;
 
 class ForgotPasswordIntegrationTest extends AbstractIntegrationTest {
 
+    @Autowired
+    private MailOutboxDispatcher mailOutboxDispatcher;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -34,10 +39,12 @@ class ForgotPasswordIntegrationTest extends AbstractIntegrationTest {
                                 """.formatted(user.getEmail())))
                 .andExpect(status().isNoContent());
 
+        mailOutboxDispatcher.dispatch();
         assertThat(sentMails()).hasSize(1);
         var mailData = sentMails().get(0);
         assertThat(mailData.to()).isEqualTo(user.getEmail());
-        assertThat(mailData.bodyHtml()).contains(user.getDisplayName());
+        assertThat(mailData.bodyHtml()).contains(htmlEscape(user.getDisplayName()));
+        assertThat(mailData.bodyText()).contains(user.getDisplayName());
         assertThat(mailData.subject()).isEqualTo("Forgot password link");
     }
 
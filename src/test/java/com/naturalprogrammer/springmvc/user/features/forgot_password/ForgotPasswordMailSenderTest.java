@@ -3,7 +3,9 @@ package com.naturalprogrammer.springmvc.user.features.forgot_password;
 import com.naturalprogrammer.springmvc.common.MessageGetter;
 import com.naturalprogrammer.springmvc.common.jwt.JweService;
 import com.naturalprogrammer.springmvc.common.mail.MailData;
-import com.naturalprogrammer.springmvc.common.mail.MailSender;
+import com.naturalprogrammer.springmvc.common.mail.template.MailBody;
+import com.naturalprogrammer.springmvc.common.mail.template.MailTemplates;
+import com.naturalprogrammer.springmvc.common.mail.outbox.MailOutbox;
 import com.naturalprogrammer.springmvc.config.MyProperties;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,9 +28,8 @@ import static com.naturalprogrammer.springmvc.user.UserTestUtils.FAKER;
 import static com.naturalprogrammer.springmvc.user.UserTestUtils.randomUser;
 import static com.naturalprogrammer.springmvc.user.features.forgot_password.ForgotPasswordMailSender.FORGOT_PASSWORD_TOKEN_VALID_DAYS;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.verify;
 import static org.springframework.security.oauth2.core.oidc.StandardClaimNames.EMAIL;
 
@@ -36,11 +37,14 @@ import static org.springframework.security.oauth2.core.oidc.StandardClaimNames.E
 class ForgotPasswordMailSenderTest {
 
     @Mock
-    private MailSender mailSender;
+    private MailOutbox mailOutbox;
 
     @Mock
     private MessageGetter messageGetter;
 
+    @Mock
+    private MailTemplates mailTemplates;
+
     @Mock
     private JweService jweService;
 
@@ -64,7 +68,7 @@ class ForgotPasswordMailSenderTest {
         var now = Instant.now();
         var token = UUID.randomUUID().toString();
         var forgotPasswordSubject = "Forgot Password Subject";
-        var forgotPasswordBody = "Forgot Password Body";
+        var forgotPasswordBody = new MailBody("Forgot Password Html", "Forgot Password Text");
         var homepage = FAKER.internet().url();
 
         given(clock.instant()).willReturn(now);
@@ -78,19 +82,22 @@ class ForgotPasswordMailSenderTest {
         )).willReturn(token);
         given(properties.homepage()).willReturn(homepage);
         given(messageGetter.getMessage("forgot-password-mail-subject")).willReturn(forgotPasswordSubject);
-        given(messageGetter.getMessage("forgot-password-mail-body",
-                user.getDisplayName(), homepage, token)).willReturn(forgotPasswordBody);
-        willDoNothing().given(mailSender).send(any());
+        given(mailTemplates.render("forgot-password", Map.of(
+                "name", user.getDisplayName(),
+                "homepage", homepage,
+                "token", token
+        ))).willReturn(forgotPasswordBody);
 
         // when
         subject.send(user);
 
         // then
-        verify(mailSender).send(mailDataCaptor.capture());
+        verify(mailOutbox).enqueue(eq("forgot-password:" + user.getId()), mailDataCaptor.capture());
         var mailData = mailDataCaptor.getValue();
         assertThat(mailData.to()).isEqualTo(user.getEmail());
         assertThat(mailData.subject()).isEqualTo(forgotPasswordSubject);
-        assertThat(mailData.bodyHtml()).isEqualTo(forgotPasswordBody);
+        assertThat(mailData.bodyHtml()).isEqualTo(forgotPasswordBody.html());
+        assertThat(mailData.bodyText()).isEqualTo(forgotPasswordBody.text());
         assertThat(mailData.attachment()).isNull();
     }
 }
\ No newline at end of file
@@ -0,0 +1,238 @@
+package com.naturalprogrammer.springmvc.user.features.list;
+
+import com.jayway.jsonpath.JsonPath;
+import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
+import com.naturalprogrammer.springmvc.user.domain.Role;
+import com.naturalprogrammer.springmvc.user.domain.User;
+import com.naturalprogrammer.springmvc.user.features.login.AuthTokenCreator;
+import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import com.naturalprogrammer.springmvc.user.services.UserResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+import static com.naturalprogrammer.springmvc.common.Path.USERS;
+import static com.naturalprogrammer.springmvc.helpers.MyTestUtils.futureTime;
+import static com.naturalprogrammer.springmvc.user.UserTestUtils.randomUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.WWW_AUTHENTICATE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ListUsersIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthTokenCreator authTokenCreator;
+
+    private final Date future = futureTime();
+
+    private User admin;
+    private String accessToken;
+
+    @BeforeEach
+    void setUp() {
+        admin = randomUser();
+        admin.setEmail("admin@example.com");
+        admin.setRoles(Set.of(Role.VERIFIED, Role.ADMIN));
+        admin = userRepository.save(admin);
+        accessToken = authTokenCreator.createAccessToken(admin.getIdStr(), future.toInstant());
+    }
+
+    private User saveUser(String email, Role... roles) {
+        var user = randomUser();
+        user.setEmail(email);
+        user.setRoles(Set.of(roles));
+        return userRepository.save(user);
+    }
+
+    @Test
+    void admin_should_pageThroughUsers() throws Exception {
+
+        // given
+        saveUser("user1@example.com", Role.VERIFIED);
+        saveUser("user2@example.com", Role.UNVERIFIED);
+        saveUser("user3@example.com", Role.UNVERIFIED);
+        saveUser("user4@example.com", Role.VERIFIED);
+
+        // when
+        var ids = new ArrayList<String>();
+        String after = null;
+        var pages = 0;
+        do {
+            var request = get(USERS)
+                    .param("limit", "2")
+                    .header(AUTHORIZATION, "Bearer " + accessToken);
+            if (after != null)
+                request.param("after", after);
+
+            var response = mvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(UsersPage.CONTENT_TYPE))
+                    .andExpect(jsonPath("$.users", hasSize(lessThanOrEqualTo(2))))
+                    .andReturn().getResponse().getContentAsString();
+
+            List<String> pageIds = JsonPath.read(response, "$.users[*].id");
+            ids.addAll(pageIds);
+            after = JsonPath.read(response, "$.next");
+            pages++;
+        } while (after != null);
+
+        // then
+        assertThat(pages).isEqualTo(3);
+        assertThat(ids).hasSize(5).doesNotHaveDuplicates().isSorted();
+    }
+
+    @Test
+    void admin_should_filterUsers() throws Exception {
+
+        // given
+        var verified = saveUser("Alice.Smith@example.com", Role.VERIFIED);
+        saveUser("alice_jones@example.com", Role.UNVERIFIED);
+        saveUser("bob@example.com", Role.VERIFIED);
+
+        // when, then
+        mvc.perform(get(USERS)
+                        .param("emailPrefix", "alice")
+                        .param("verified", "true")
+                        .header(AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0].id").value(verified.getIdStr()))
+                .andExpect(jsonPath("$.users[0].email").value(verified.getEmail()))
+                .andExpect(jsonPath("$.users[0].displayName").value(verified.getDisplayName()))
+                .andExpect(jsonPath("$.users[0].locale").value(verified.getLocale().toLanguageTag()))
+                .andExpect(jsonPath("$.users[0].roles", contains("VERIFIED")))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        // _ isn't a wildcard
+        mvc.perform(get(USERS)
+                        .param("emailPrefix", "alice_")
+                        .header(AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0].email").value("alice_jones@example.com"));
+
+        mvc.perform(get(USERS)
+                        .param("role", "ADMIN")
+                        .header(AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0].id").value(admin.getIdStr()));
+    }
+
+    @Test
+    void admin_should_filterUsersByCreatedRange() throws Exception {
+
+        // given
+        var before = Instant.now().minus(1, ChronoUnit.MINUTES);
+        var user = saveUser("user@example.com", Role.VERIFIED);
+        var after = Instant.now().plus(1, ChronoUnit.MINUTES);
+        assertThat(user.getCreatedAt()).isBetween(before, after);
+
+        // when, then
+        mvc.perform(get(USERS)
+                        .param("createdFrom", before.toString())
+                        .param("createdTo", after.toString())
+                        .param("role", "VERIFIED")
+                        .header(AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[*].id", hasItem(user.getIdStr())));
+
+        mvc.perform(get(USERS)
+                        .param("createdFrom", after.toString())
+                        .header(AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(0)));
+    }
+
+    @Test
+    void admin_should_exportNdjson() throws Exception {
+
+        // given
+        var user = saveUser("user@example.com", Role.UNVERIFIED);
+
+        // when
+        var result = mvc.perform(get(USERS)
+                        .param("format", "ndjson")
+                        .header(AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        var body = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+
+        var lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(body).endsWith("\n");
+        assertThat(body).contains("\"id\":\"" + user.getIdStr() + "\"");
+        assertThat(body).contains("\"email\":\"" + admin.getEmail() + "\"");
+        assertThat(body).doesNotContain("authTokens");
+    }
+
+    @Test
+    void admin_should_exportCsv() throws Exception {
+
+        // given
+        var user = randomUser();
+        user.setEmail("csv@example.com");
+        user.setDisplayName("=HYPERLINK(\"x\")");
+        user.setRoles(Set.of(Role.UNVERIFIED));
+        user = userRepository.save(user);
+
+        // when
+        var result = mvc.perform(get(USERS)
+                        .param("format", "csv")
+                        .param("emailPrefix", "csv")
+                        .header(AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ListUsersController.CSV_TYPE))
+                .andExpect(content().string("id,email,displayName,locale,roles\r\n"
+                        + user.getIdStr() + ",csv@example.com,\"'=HYPERLINK(\"\"x\"\")\",en-IN,UNVERIFIED\r\n"));
+    }
+
+    @Test
+    void admin_should_stillGetUsersByEmail() throws Exception {
+
+        // when, then
+        mvc.perform(get(USERS)
+                        .param("email", admin.getEmail())
+                        .header(AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(UserResource.LIST_TYPE))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void nonAdmin_shouldNot_listUsers() throws Exception {
+
+        // given
+        var nonAdmin = saveUser("user@example.com", Role.VERIFIED);
+        var nonAdminToken = authTokenCreator.createAccessToken(nonAdmin.getIdStr(), future.toInstant());
+
+        // when, then
+        mvc.perform(get(USERS)
+                        .param("format", "csv")
+                        .header(AUTHORIZATION, "Bearer " + nonAdminToken))
+                .andExpect(status().isForbidden())
+                .andExpect(header().string(WWW_AUTHENTICATE, startsWith("Bearer error=\"insufficient_scope\"")));
+    }
+}
@@ -0,0 +1,61 @@
+package com.naturalprogrammer.springmvc.user.features.list;
+
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
+
+class UserExporterTest {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(30);
+
+    private final UserExporter subject = new UserExporter(properties());
+
+    private static MyProperties properties() {
+        var properties = mock(MyProperties.class);
+        given(properties.userExport()).willReturn(new MyProperties.UserExport(1, TIMEOUT));
+        return properties;
+    }
+
+    @Test
+    void should_exportWithItsOwnTimeout() throws Exception {
+
+        // given
+        var response = new MockHttpServletResponse();
+
+        // when
+        var task = subject.export(response, ListUsersController.CSV_TYPE, "users.csv", out -> out.write('x'));
+        task.getCallable().call();
+
+        // then
+        assertThat(task.getTimeout()).isEqualTo(TIMEOUT.toMillis());
+        assertThat(response.getContentType()).isEqualTo(ListUsersController.CSV_TYPE);
+        assertThat(response.getHeader(CONTENT_DISPOSITION)).isEqualTo("attachment; filename=\"users.csv\"");
+        assertThat(response.getContentAsString()).isEqualTo("x");
+    }
+
+    @Test
+    void should_rejectExport_beyondMaxConcurrent() throws Exception {
+
+        // given
+        var running = subject.export(new MockHttpServletResponse(), ListUsersController.CSV_TYPE, "users.csv", out -> {
+        });
+
+        // when, then
+        assertThatThrownBy(() -> subject.export(
+                new MockHttpServletResponse(), ListUsersController.CSV_TYPE, "users.csv", out -> {
+                }))
+                .isInstanceOf(UserExportRejectedException.class);
+
+        running.getCallable().call();
+        assertThat(subject.export(new MockHttpServletResponse(), ListUsersController.CSV_TYPE, "users.csv", out -> {
+        })).isNotNull();
+    }
+}
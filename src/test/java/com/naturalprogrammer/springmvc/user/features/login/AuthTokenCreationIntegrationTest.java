@@ -6,6 +6,7 @@ import com.naturalprogrammer.springmvc.common.jwt.JwsService;
 import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
 import com.naturalprogrammer.springmvc.user.domain.Role;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
@@ -43,6 +44,9 @@ class AuthTokenCreationIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private JwsService jwsService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private final Date future = futureTime();
 
     @Test
@@ -172,4 +176,58 @@ class AuthTokenCreationIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(header().string(WWW_AUTHENTICATE, startsWith("Bearer error=\"insufficient_scope\"")));
     }
 
-}
\ No newline at end of file
+    @Test
+    void should_reuseResourceToken_when_stillFresh() throws Exception {
+
+        // given
+        var user = randomUser();
+        user.setRoles(Set.of(Role.VERIFIED));
+        user = userRepository.save(user);
+        var resourceTokenValidUntil = Instant.now().plus(10, DAYS.toChronoUnit()).truncatedTo(SECONDS);
+        var resourceToken = authTokenCreator.createResourceToken(user.getIdStr(), resourceTokenValidUntil);
+        var reusedBefore = reusedRefreshCount();
+
+        // when
+        var response = mvc.perform(get(USERS + "/{id}/auth-tokens", user.getId())
+                        .header(AUTHORIZATION, "Bearer " + resourceToken)
+                        .param("reuseResourceToken", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(AuthTokensResource.CONTENT_TYPE))
+                .andReturn()
+                .getResponse();
+
+        // then
+        var authTokens = mapper.readValue(response.getContentAsString(), AuthTokensResource.class);
+        assertThat(authTokens.resourceToken()).isEqualTo(resourceToken);
+        assertThat(authTokens.resourceTokenValidUntil()).isEqualTo(resourceTokenValidUntil);
+        assertThat(jwsService.parseToken(authTokens.accessToken()).isRight()).isTrue();
+        assertThat(reusedRefreshCount()).isEqualTo(reusedBefore + 1);
+    }
+
+    @Test
+    void shouldNot_reuseResourceToken_when_aboutToExpire() throws Exception {
+
+        // given
+        var user = randomUser();
+        user.setRoles(Set.of(Role.VERIFIED));
+        user = userRepository.save(user);
+        var resourceToken = authTokenCreator.createResourceToken(user.getIdStr(), future.toInstant());
+
+        // when
+        var response = mvc.perform(get(USERS + "/{id}/auth-tokens", user.getId())
+                        .header(AUTHORIZATION, "Bearer " + resourceToken)
+                        .param("reuseResourceToken", "true"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        // then
+        var authTokens = mapper.readValue(response.getContentAsString(), AuthTokensResource.class);
+        assertThat(authTokens.resourceToken()).isNotEqualTo(resourceToken);
+        assertThat(authTokens.resourceTokenValidUntil()).isAfter(future.toInstant());
+    }
+
+    private double reusedRefreshCount() {
+        return meterRegistry.get(AuthTokenCreator.REFRESH_COUNTER_NAME).tag("path", "reused").counter().count();
+    }
+}
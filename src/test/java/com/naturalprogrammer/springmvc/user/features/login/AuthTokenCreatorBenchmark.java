@@ -0,0 +1,71 @@
+package com.naturalprogrammer.springmvc.user.features.login;
+
+import com.naturalprogrammer.springmvc.common.jwt.JwsService;
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.naturalprogrammer.springmvc.common.jwt.JwtPurpose.AUTH;
+import static com.naturalprogrammer.springmvc.common.jwt.JwtPurpose.PURPOSE;
+import static org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames.SCOPE;
+
+/**
+ * Compares minting the resource and access tokens of {@link AuthTokenCreator#create(String, Long)}
+ * through the templates with minting them through the generic {@link JwsService#createToken}.
+ * Run with "-prof gc" to compare the allocation per operation.
+ * The properties are a real MyProperties, bound like the application's from just the fields needed,
+ * so that no mock records the calls made while measuring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class AuthTokenCreatorBenchmark {
+
+    private JwsService jwsService;
+    private AuthTokenCreator authTokenCreator;
+    private String userId;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        var key = new RSAKeyGenerator(2048).generate();
+        var properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "my.homepage", "http://www.example.com",
+                "my.jws.id", UUID.randomUUID().toString(),
+                "my.jws.public-key", key.toRSAPublicKey(),
+                "my.jws.private-key", key.toRSAPrivateKey()
+        ))).bindOrCreate("my", MyProperties.class);
+        var clock = Clock.systemUTC();
+        jwsService = new JwsService(clock, properties, new SimpleMeterRegistry());
+        authTokenCreator = new AuthTokenCreator(null, null, jwsService, null, clock, new SimpleMeterRegistry());
+        userId = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public AuthTokensResource templated() {
+        return authTokenCreator.create(userId, null);
+    }
+
+    @Benchmark
+    public String[] generic() {
+        var now = System.currentTimeMillis();
+        return new String[]{
+                jwsService.createToken(userId, new Date(now + AuthTokenCreator.DEFAULT_RESOURCE_TOKEN_VALID_MILLIS),
+                        Map.of(PURPOSE, AUTH, SCOPE, AuthScope.AUTH_TOKENS.getValue())),
+                jwsService.createToken(userId, new Date(now + AuthTokenCreator.ACCESS_TOKEN_VALID_MILLIS),
+                        Map.of(PURPOSE, AUTH, SCOPE, AuthScope.NORMAL.getValue()))
+        };
+    }
+}
@@ -5,6 +5,7 @@ import com.naturalprogrammer.springmvc.common.jwt.JwsService;
 import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
 import com.naturalprogrammer.springmvc.user.domain.Role;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
@@ -19,6 +20,7 @@ import static com.naturalprogrammer.springmvc.user.UserTestUtils.RANDOM_USER_PAS
 import static com.naturalprogrammer.springmvc.user.UserTestUtils.randomUser;
 import static com.naturalprogrammer.springmvc.user.features.login.AuthTokenCreator.ACCESS_TOKEN_VALID_MILLIS;
 import static com.naturalprogrammer.springmvc.user.features.signup.SignupIntegrationTest.assertClaims;
+import static com.naturalprogrammer.springmvc.user.services.KnownEmailFilter.SKIPPED_COUNTER_NAME;
 import static java.time.temporal.ChronoUnit.SECONDS;
 import static java.util.concurrent.TimeUnit.DAYS;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -37,6 +39,9 @@ class LoginIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private JwsService jwsService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void should_login() throws Exception {
 
@@ -123,6 +128,8 @@ class LoginIntegrationTest extends AbstractIntegrationTest {
     @Test
     void should_notLogin_when_emailNotFound() throws Exception {
 
+        var skipped = meterRegistry.get(SKIPPED_COUNTER_NAME).counter().count();
+
         mvc.perform(post(LOGIN)
                         .contentType(LoginRequest.CONTENT_TYPE)
                         .content("""
@@ -139,6 +146,8 @@ class LoginIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("title").value("Either the email or password is wrong"))
                 .andExpect(jsonPath("status").value("401"))
                 .andExpect(jsonPath("errors", hasSize(0)));
+
+        assertThat(meterRegistry.get(SKIPPED_COUNTER_NAME).counter().count()).isEqualTo(skipped + 1);
     }
 
     @Test
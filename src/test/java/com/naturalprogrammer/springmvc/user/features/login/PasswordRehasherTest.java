@@ -0,0 +1,65 @@
+package com.naturalprogrammer.springmvc.user.features.login;
+
+import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static com.naturalprogrammer.springmvc.user.UserTestUtils.randomUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordRehasherTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @InjectMocks
+    private PasswordRehasher subject;
+
+    @Test
+    void should_rehash() {
+
+        // given
+        var user = randomUser();
+        user.setPassword("{bcrypt}old-hash");
+        given(userRepository.findById(user.getId())).willReturn(Optional.of(user));
+        given(passwordEncoder.encode("password")).willReturn("{bcrypt}new-hash");
+
+        // when
+        subject.rehash(user.getId(), "password", "{bcrypt}old-hash");
+
+        // then
+        assertThat(user.getPassword()).isEqualTo("{bcrypt}new-hash");
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void shouldNot_rehash_when_passwordChangedMeanwhile() {
+
+        // given
+        var user = randomUser();
+        user.setPassword("{bcrypt}changed-hash");
+        given(userRepository.findById(user.getId())).willReturn(Optional.of(user));
+
+        // when
+        subject.rehash(user.getId(), "password", "{bcrypt}old-hash");
+
+        // then
+        assertThat(user.getPassword()).isEqualTo("{bcrypt}changed-hash");
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepository, never()).save(any());
+    }
+}
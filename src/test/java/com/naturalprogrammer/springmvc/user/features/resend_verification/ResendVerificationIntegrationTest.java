@@ -1,9 +1,11 @@
 package com.naturalprogrammer.springmvc.user.features.resend_verification;
 
+import com.naturalprogrammer.springmvc.common.mail.outbox.MailOutboxDispatcher;
 import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
 import com.naturalprogrammer.springmvc.user.domain.Role;
 import com.naturalprogrammer.springmvc.user.features.login.AuthTokenCreator;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -11,21 +13,29 @@ import java.util.Set;
 
 import static com.naturalprogrammer.springmvc.common.Path.USERS;
 import static com.naturalprogrammer.springmvc.common.mail.LoggingMailSender.sentMails;
+import static com.naturalprogrammer.springmvc.common.mail.MailCoalescer.SUPPRESSED_COUNTER_NAME;
 import static com.naturalprogrammer.springmvc.helpers.MyTestUtils.futureTime;
 import static com.naturalprogrammer.springmvc.user.UserTestUtils.randomUser;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.web.util.HtmlUtils.htmlEscape;
 
 class ResendVerificationIntegrationTest extends AbstractIntegrationTest {
 
+    @Autowired
+    private MailOutboxDispatcher mailOutboxDispatcher;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private AuthTokenCreator authTokenCreator;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void should_resendVerificationMail() throws Exception {
 
@@ -42,11 +52,40 @@ class ResendVerificationIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(status().isNoContent());
 
         // then
+        mailOutboxDispatcher.dispatch();
         assertThat(sentMails()).hasSize(1);
         var mailData = sentMails().get(0);
         assertThat(mailData.to()).isEqualTo(user.getEmail());
-        assertThat(mailData.bodyHtml()).contains(user.getDisplayName());
+        assertThat(mailData.bodyHtml()).contains(htmlEscape(user.getDisplayName()));
+        assertThat(mailData.bodyText()).contains(user.getDisplayName());
         assertThat(mailData.subject()).isEqualTo("Please verify your email");
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldNot_resendVerificationMail_when_sentRecently() throws Exception {
+
+        // given
+        var user = randomUser();
+        user.setRoles(Set.of(Role.UNVERIFIED));
+        user = userRepository.save(user);
+        var accessToken = authTokenCreator.createAccessToken(user.getIdStr(), futureTime().toInstant());
+        var suppressedBefore = suppressedCount();
+        sentMails().clear();
+
+        // when
+        for (int i = 0; i < 3; i++)
+            mvc.perform(post(USERS + "/{id}/verifications", user.getId())
+                            .header(AUTHORIZATION, "Bearer " + accessToken))
+                    .andExpect(status().isNoContent());
+
+        // then
+        mailOutboxDispatcher.dispatch();
+        assertThat(sentMails()).hasSize(1);
+        assertThat(suppressedCount() - suppressedBefore).isEqualTo(2);
+    }
+
+    private double suppressedCount() {
+        var counter = meterRegistry.find(SUPPRESSED_COUNTER_NAME).tag("mail", "verification").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
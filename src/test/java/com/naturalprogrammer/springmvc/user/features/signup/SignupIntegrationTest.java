@@ -3,6 +3,7 @@ package com.naturalprogrammer.springmvc.user.features.signup;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.naturalprogrammer.springmvc.common.error.ProblemType;
 import com.naturalprogrammer.springmvc.common.jwt.JwsService;
+import com.naturalprogrammer.springmvc.common.mail.outbox.MailOutboxDispatcher;
 import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
 import com.naturalprogrammer.springmvc.user.domain.Role;
 import com.naturalprogrammer.springmvc.user.domain.User;
@@ -42,6 +43,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 public class SignupIntegrationTest extends AbstractIntegrationTest {
 
+    @Autowired
+    private MailOutboxDispatcher mailOutboxDispatcher;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -134,10 +138,12 @@ public class SignupIntegrationTest extends AbstractIntegrationTest {
                 AuthScope.AUTH_TOKENS.getValue()
         );
 
+        mailOutboxDispatcher.dispatch();
         assertThat(sentMails()).hasSize(1);
         var mailData = sentMails().get(0);
         assertThat(mailData.to()).isEqualTo(email);
         assertThat(mailData.bodyHtml()).contains(displayName);
+        assertThat(mailData.bodyText()).contains(displayName);
         assertThat(mailData.subject()).isEqualTo("Please verify your email");
     }
 
@@ -7,6 +7,7 @@ import com.naturalprogrammer.springmvc.user.domain.Role;
 import com.naturalprogrammer.springmvc.user.features.login.AuthTokenCreator;
 import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
 import com.naturalprogrammer.springmvc.user.services.UserResource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -161,7 +162,7 @@ class UserVerificationIntegrationTest extends AbstractIntegrationTest {
 
         var properties = mock(MyProperties.class, RETURNS_DEEP_STUBS);
         given(properties.jwe().key()).willReturn("D5585149683470B0E2098D28B8D3AD33");
-        JweService anotherJweService = new JweService(Clock.systemUTC(), properties);
+        JweService anotherJweService = new JweService(Clock.systemUTC(), properties, new SimpleMeterRegistry());
 
         var verificationToken = anotherJweService.createToken(
                 userIdStr,
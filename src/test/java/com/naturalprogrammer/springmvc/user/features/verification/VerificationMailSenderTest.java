@@ -2,8 +2,11 @@ package com.naturalprogrammer.springmvc.user.features.verification;
 
 import com.naturalprogrammer.springmvc.common.MessageGetter;
 import com.naturalprogrammer.springmvc.common.jwt.JweService;
+import com.naturalprogrammer.springmvc.common.mail.MailCoalescer;
 import com.naturalprogrammer.springmvc.common.mail.MailData;
-import com.naturalprogrammer.springmvc.common.mail.MailSender;
+import com.naturalprogrammer.springmvc.common.mail.template.MailBody;
+import com.naturalprogrammer.springmvc.common.mail.template.MailTemplates;
+import com.naturalprogrammer.springmvc.common.mail.outbox.MailOutbox;
 import com.naturalprogrammer.springmvc.config.MyProperties;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,10 +29,10 @@ import static com.naturalprogrammer.springmvc.user.UserTestUtils.FAKER;
 import static com.naturalprogrammer.springmvc.user.UserTestUtils.randomUser;
 import static com.naturalprogrammer.springmvc.user.features.verification.VerificationMailSender.VERIFICATION_TOKEN_VALID_DAYS;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.security.oauth2.core.oidc.StandardClaimNames.EMAIL;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,7 +48,13 @@ class VerificationMailSenderTest {
     private MessageGetter messageGetter;
 
     @Mock
-    private MailSender mailSender;
+    private MailTemplates mailTemplates;
+
+    @Mock
+    private MailOutbox mailOutbox;
+
+    @Mock
+    private MailCoalescer mailCoalescer;
 
     @Mock
     private MyProperties properties;
@@ -64,8 +73,9 @@ class VerificationMailSenderTest {
         var now = Instant.now();
         var verificationToken = UUID.randomUUID().toString();
         var mailSubject = "Verification mail subject";
-        var mailBody = "Verification mail body %s %s".formatted(user.getDisplayName(), verificationToken);
+        var mailBody = new MailBody("Verification mail html", "Verification mail text");
         var homepage = FAKER.internet().url();
+        given(mailCoalescer.tryAcquire("verification:" + user.getId(), "verification")).willReturn(true);
         given(clock.instant()).willReturn(now);
         given(jweService.createToken(
                 user.getIdStr(),
@@ -74,20 +84,36 @@ class VerificationMailSenderTest {
                 .willReturn(verificationToken);
         given(properties.homepage()).willReturn(homepage);
         given(messageGetter.getMessage("verification-mail-subject")).willReturn(mailSubject);
-        given(messageGetter.getMessage("verification-mail-body",
-                user.getDisplayName(), homepage, verificationToken))
-                .willReturn(mailBody);
-        willDoNothing().given(mailSender).send(any());
+        given(mailTemplates.render("verification", Map.of(
+                "name", user.getDisplayName(),
+                "homepage", homepage,
+                "token", verificationToken
+        ))).willReturn(mailBody);
 
         // when
         subject.send(user);
 
         // then
-        verify(mailSender).send(mailCaptor.capture());
+        verify(mailOutbox).enqueue(eq("verification:" + user.getId()), mailCaptor.capture());
         var mailData = mailCaptor.getValue();
         assertThat(mailData.to()).isEqualTo(user.getEmail());
         assertThat(mailData.subject()).isEqualTo(mailSubject);
-        assertThat(mailData.bodyHtml()).isEqualTo(mailBody);
+        assertThat(mailData.bodyHtml()).isEqualTo(mailBody.html());
+        assertThat(mailData.bodyText()).isEqualTo(mailBody.text());
         assertThat(mailData.attachment()).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldNot_sendVerificationMail_when_sentRecently() {
+
+        // given
+        var user = randomUser();
+        given(mailCoalescer.tryAcquire("verification:" + user.getId(), "verification")).willReturn(false);
+
+        // when
+        subject.send(user);
+
+        // then
+        verifyNoInteractions(jweService, mailOutbox);
+    }
+}
@@ -0,0 +1,79 @@
+package com.naturalprogrammer.springmvc.user.repositories;
+
+import com.naturalprogrammer.springmvc.NpSpringMvcDemoApplication;
+import com.naturalprogrammer.springmvc.user.domain.Role;
+import com.naturalprogrammer.springmvc.user.domain.User;
+import com.naturalprogrammer.springmvc.user.services.UserPrincipal;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Clock;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a user as a full entity, as was done before, with reading the projections.
+ * Boots the application with the test profile, so needs Docker for the Testcontainers database.
+ * Run with -prof gc to compare the allocations too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class UserProjectionBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UUID userId;
+
+    @Setup
+    public void setUp() {
+
+        context = new SpringApplicationBuilder(NpSpringMvcDemoApplication.class)
+                .profiles("test")
+                .properties("my.mail-outbox.polling=false")
+                .run();
+        userRepository = context.getBean(UserRepository.class);
+
+        var user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail(user.getId() + "@example.com");
+        user.setPassword("$2a$10$" + "x".repeat(53)); // about as long as a bcrypt hash
+        user.setDisplayName("Benchmark User");
+        user.setLocale(Locale.ENGLISH);
+        user.setRoles(Set.of(Role.VERIFIED, Role.CUSTOMER));
+        user.resetTokensValidFrom(Clock.systemUTC());
+        userId = userRepository.save(user).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        userRepository.deleteById(userId);
+        context.close();
+    }
+
+    @Benchmark
+    public UserPrincipal principalFromEntity() {
+        return userRepository.findById(userId).map(UserPrincipal::of).orElseThrow();
+    }
+
+    @Benchmark
+    public UserPrincipal principalProjection() {
+        return userRepository.findPrincipalById(userId).orElseThrow();
+    }
+
+    @Benchmark
+    public User entity() {
+        return userRepository.findById(userId).orElseThrow();
+    }
+
+    @Benchmark
+    public UserView viewProjection() {
+        return userRepository.findViewById(userId).orElseThrow();
+    }
+}
@@ -0,0 +1,155 @@
+package com.naturalprogrammer.springmvc.user.repositories;
+
+import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
+import com.naturalprogrammer.springmvc.user.domain.Role;
+import com.naturalprogrammer.springmvc.user.services.UserPrincipal;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static com.naturalprogrammer.springmvc.user.UserTestUtils.randomUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserRepositoryIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int MANY_USERS = 200_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void should_findByEmail_ignoringCase() {
+
+        // given
+        var user = randomUser();
+        user.setEmail("Sanjay.Patel@Example.com");
+        var saved = userRepository.save(user);
+
+        // when, then
+        assertThat(userRepository.findByEmail("sanjay.patel@example.COM"))
+                .hasValueSatisfying(found -> assertThat(found.getId()).isEqualTo(saved.getId()));
+        assertThat(userRepository.existsByEmail("SANJAY.PATEL@EXAMPLE.COM")).isTrue();
+        assertThat(userRepository.existsByEmail("someone.else@example.com")).isFalse();
+    }
+
+    @Test
+    void should_readProjections() {
+
+        // given
+        var user = randomUser();
+        user.setRoles(Set.of(Role.UNVERIFIED, Role.CUSTOMER));
+        var saved = userRepository.save(user);
+
+        // when
+        var principal = userRepository.findPrincipalById(saved.getId());
+        var view = userRepository.findViewByEmail(saved.getEmail().toUpperCase());
+
+        // then
+        assertThat(principal).hasValue(UserPrincipal.of(saved));
+        assertThat(view).hasValue(new UserView(
+                saved.getId(), saved.getEmail(), saved.getDisplayName(), saved.getLocale(), saved.getRoles()));
+        assertThat(userRepository.findViewById(saved.getId())).isEqualTo(view);
+    }
+
+    @Test
+    void should_loadUserWithRoles_inOneStatement() {
+
+        // given
+        var user = randomUser();
+        user.setRoles(Set.of(Role.VERIFIED, Role.ADMIN));
+        var userId = userRepository.save(user).getId();
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        var roles = transactionTemplate.execute(status -> userRepository.findById(userId).orElseThrow().getRoles());
+
+        // then
+        assertThat(roles)
+                .isInstanceOf(EnumSet.class)
+                .containsExactlyInAnyOrder(Role.VERIFIED, Role.ADMIN);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void should_updateRoles_changedInPlace() {
+
+        // given
+        var user = randomUser();
+        user.setRoles(Set.of(Role.UNVERIFIED));
+        var userId = userRepository.save(user).getId();
+
+        // when
+        transactionTemplate.executeWithoutResult(status -> {
+            var roles = userRepository.findById(userId).orElseThrow().getRoles();
+            roles.remove(Role.UNVERIFIED);
+            roles.add(Role.VERIFIED);
+        });
+
+        // then
+        assertThat(userRepository.findById(userId).orElseThrow().getRoles()).containsExactly(Role.VERIFIED);
+    }
+
+    @Test
+    void shouldNot_saveEmail_differingOnlyInCase() {
+
+        // given
+        var user = randomUser();
+        user.setEmail("duplicate@example.com");
+        userRepository.saveAndFlush(user);
+
+        var other = randomUser();
+        other.setEmail("Duplicate@Example.com");
+
+        // when, then
+        assertThatThrownBy(() -> userRepository.saveAndFlush(other))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void should_lookUpEmail_usingIndex() {
+
+        // given
+        jdbcTemplate.update("""
+                INSERT INTO usr (id, email, password, display_name, locale, roles, tokens_valid_from)
+                SELECT gen_random_uuid(), 'user' || i || '@example.com', 'x', 'User ' || i, 'en', '{VERIFIED}', now()
+                FROM generate_series(1, ?) i
+                """, MANY_USERS);
+        jdbcTemplate.execute("ANALYZE usr");
+        var scansBefore = emailIndexScans();
+
+        // when
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(userRepository.findByEmail("User123@Example.com")).isPresent();
+            assertThat(userRepository.existsByEmail("USER456@example.com")).isTrue();
+            // A backend reports its statistics lazily; make this one report them as the transaction ends
+            jdbcTemplate.execute("SELECT pg_stat_force_next_flush()");
+        });
+
+        // then
+        assertThat(emailIndexScans()).isGreaterThanOrEqualTo(scansBefore + 2);
+    }
+
+    private long emailIndexScans() {
+        return jdbcTemplate.queryForObject(
+                "SELECT idx_scan FROM pg_stat_user_indexes WHERE indexrelname = 'usr_email_lower'", Long.class);
+    }
+}
@@ -0,0 +1,74 @@
+package com.naturalprogrammer.springmvc.user.services;
+
+import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static com.naturalprogrammer.springmvc.user.services.KafkaKnownEmailBus.LISTENER_ID;
+import static com.naturalprogrammer.springmvc.user.services.KafkaKnownEmailBus.TOPIC;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@EmbeddedKafka(partitions = 1, topics = TOPIC)
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "my.known-emails.kafka-propagation=true"
+})
+class KafkaKnownEmailBusIntegrationTest extends AbstractIntegrationTest {
+
+    private static final long MAX_PROPAGATION_MILLIS = 1000;
+
+    @Autowired
+    private KnownEmailFilter knownEmailFilter;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @BeforeEach
+    void setUp() throws Exception {
+
+        var container = registry.getListenerContainer(LISTENER_ID);
+        ContainerTestUtils.waitForAssignment(container, broker.getPartitionsPerTopic());
+
+        // the filter is built once the consumer is assigned
+        var startedAt = System.currentTimeMillis();
+        while (knownEmailFilter.mightExist("nobody-" + UUID.randomUUID() + "@example.com")) {
+            assertThat(System.currentTimeMillis() - startedAt).as("Known emails filter build millis").isLessThan(10_000);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void should_knowEmail_when_anotherNodeAddsIt() throws Exception {
+
+        // given, a user who signed up on another node
+        var email = "user-" + UUID.randomUUID() + "@example.com";
+        assertThat(knownEmailFilter.mightExist(email)).isFalse();
+
+        // when
+        var startedAt = System.currentTimeMillis();
+        kafkaTemplate.send(TOPIC, email).get();
+
+        // then
+        while (!knownEmailFilter.mightExist(email)) {
+            assertThat(System.currentTimeMillis() - startedAt)
+                    .as("Known email propagation millis")
+                    .isLessThan(MAX_PROPAGATION_MILLIS);
+            Thread.sleep(10);
+        }
+    }
+}
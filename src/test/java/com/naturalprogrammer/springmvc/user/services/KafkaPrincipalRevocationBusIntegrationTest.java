@@ -0,0 +1,82 @@
+package com.naturalprogrammer.springmvc.user.services;
+
+import com.naturalprogrammer.springmvc.helpers.AbstractIntegrationTest;
+import com.naturalprogrammer.springmvc.user.domain.Role;
+import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.naturalprogrammer.springmvc.user.UserTestUtils.randomUser;
+import static com.naturalprogrammer.springmvc.user.services.KafkaPrincipalRevocationBus.LISTENER_ID;
+import static com.naturalprogrammer.springmvc.user.services.KafkaPrincipalRevocationBus.TOPIC;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@EmbeddedKafka(partitions = 1, topics = TOPIC)
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "my.principal-cache.kafka-revocation=true"
+})
+class KafkaPrincipalRevocationBusIntegrationTest extends AbstractIntegrationTest {
+
+    private static final long MAX_PROPAGATION_MILLIS = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @BeforeEach
+    void setUp() {
+        var container = registry.getListenerContainer(LISTENER_ID);
+        ContainerTestUtils.waitForAssignment(container, broker.getPartitionsPerTopic());
+    }
+
+    @Test
+    void should_evictPrincipal_when_anotherNodePublishesRevocation() throws Exception {
+
+        // given
+        var user = randomUser();
+        user.setRoles(new HashSet<>(Set.of(Role.UNVERIFIED)));
+        user = userRepository.save(user);
+        var userId = user.getId();
+        assertThat(userPrincipalCache.get(userId).orElseThrow().roles()).containsExactly(Role.UNVERIFIED);
+
+        // another node changes the roles ...
+        user.setRoles(new HashSet<>(Set.of(Role.VERIFIED)));
+        userRepository.save(user);
+        assertThat(userPrincipalCache.get(userId).orElseThrow().roles()).containsExactly(Role.UNVERIFIED);
+
+        // when ... and publishes the revocation
+        var startedAt = System.currentTimeMillis();
+        kafkaTemplate.send(TOPIC, userId.toString(), userId.toString()).get();
+
+        // then
+        while (userPrincipalCache.get(userId).orElseThrow().roles().contains(Role.UNVERIFIED)) {
+            assertThat(System.currentTimeMillis() - startedAt)
+                    .as("Revocation propagation millis")
+                    .isLessThan(MAX_PROPAGATION_MILLIS);
+            Thread.sleep(10);
+        }
+        assertThat(userPrincipalCache.get(userId).orElseThrow().roles()).containsExactly(Role.VERIFIED);
+    }
+}
@@ -0,0 +1,92 @@
+package com.naturalprogrammer.springmvc.user.services;
+
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class KnownEmailFilterTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private KnownEmailFilter filter(boolean kafkaPropagation) {
+        var properties = mock(MyProperties.class);
+        given(properties.knownEmails()).willReturn(
+                new MyProperties.KnownEmails(true, kafkaPropagation, 1000, 0.01, Duration.ofMinutes(15)));
+        return new KnownEmailFilter(userRepository, eventPublisher,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void should_knowOnlyTheSavedEmails_afterWarmUp() {
+
+        // given
+        given(userRepository.streamAllEmails()).willReturn(Stream.of("User1@Example.com"));
+        var subject = filter(false);
+        assertThat(subject.mightExist("stranger@example.com")).isTrue(); // not built yet
+
+        // when
+        subject.warmUp();
+        subject.add("user2@example.com");
+
+        // then
+        assertThat(subject.mightExist("user1@example.com")).isTrue();
+        assertThat(subject.mightExist("USER2@example.com")).isTrue();
+        assertThat(subject.mightExist("stranger@example.com")).isFalse();
+        verify(eventPublisher).publishEvent(new KnownEmailAddedEvent("user2@example.com"));
+        verifyNoMoreInteractions(eventPublisher); // the warm-up isn't published
+    }
+
+    @Test
+    void should_waitForPropagation_beforeSkippingTheDatabase() {
+
+        // given
+        given(userRepository.streamAllEmails()).willAnswer(invocation -> Stream.of("user1@example.com"));
+        var subject = filter(true);
+
+        // when, then
+        subject.warmUp();
+        assertThat(subject.mightExist("stranger@example.com")).isTrue();
+
+        subject.propagationStarted();
+        assertThat(subject.mightExist("stranger@example.com")).isFalse();
+
+        subject.propagationStopped();
+        assertThat(subject.mightExist("stranger@example.com")).isTrue();
+        subject.rebuild(); // doesn't trust a snapshot taken while not propagating
+        assertThat(subject.mightExist("stranger@example.com")).isTrue();
+
+        subject.propagationStarted();
+        assertThat(subject.mightExist("stranger@example.com")).isFalse();
+        assertThat(subject.mightExist("user1@example.com")).isTrue();
+    }
+
+    @Test
+    void should_recoverMissedEmails_onRebuild() {
+
+        // given, an email saved on another node, whose propagation was missed
+        given(userRepository.streamAllEmails())
+                .willReturn(Stream.of("user1@example.com"))
+                .willReturn(Stream.of("user1@example.com", "missed@example.com"));
+        var subject = filter(false);
+        subject.warmUp();
+        assertThat(subject.mightExist("missed@example.com")).isFalse();
+
+        // when
+        subject.rebuild();
+
+        // then
+        assertThat(subject.mightExist("missed@example.com")).isTrue();
+    }
+}
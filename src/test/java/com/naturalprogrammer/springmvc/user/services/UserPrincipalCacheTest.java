@@ -0,0 +1,91 @@
+package com.naturalprogrammer.springmvc.user.services;
+
+import com.naturalprogrammer.springmvc.config.MyProperties;
+import com.naturalprogrammer.springmvc.user.domain.Role;
+import com.naturalprogrammer.springmvc.user.domain.User;
+import com.naturalprogrammer.springmvc.user.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.naturalprogrammer.springmvc.user.UserTestUtils.randomUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class UserPrincipalCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final MyProperties properties = mock(MyProperties.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserPrincipalCache subject;
+
+    private final User user = randomUser();
+
+    @BeforeEach
+    void setUp() {
+        given(properties.principalCache()).willReturn(new MyProperties.PrincipalCache(100, Duration.ofMinutes(5), false));
+        subject = new UserPrincipalCache(userRepository, eventPublisher, properties, meterRegistry);
+        user.setRoles(Set.of(Role.VERIFIED));
+        user.setVersion(3);
+    }
+
+    @Test
+    void should_loadPrincipalOnlyOnce() {
+
+        // given
+        given(userRepository.findPrincipalById(user.getId())).willReturn(Optional.of(UserPrincipal.of(user)));
+
+        // when
+        var first = subject.get(user.getId());
+        var second = subject.get(user.getId());
+
+        // then
+        assertThat(first).hasValue(new UserPrincipal(user.getId(), Set.of(Role.VERIFIED), user.getTokensValidFrom(), 3));
+        assertThat(second).isEqualTo(first);
+        verify(userRepository, times(1)).findPrincipalById(user.getId());
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_reloadPrincipal_when_evicted() {
+
+        // given
+        given(userRepository.findPrincipalById(user.getId())).willReturn(Optional.of(UserPrincipal.of(user)));
+        subject.get(user.getId());
+
+        // when
+        subject.evict(user.getId());
+        subject.get(user.getId());
+
+        // then
+        verify(userRepository, times(2)).findPrincipalById(user.getId());
+        verify(eventPublisher).publishEvent(new UserPrincipalChangedEvent(user.getId()));
+    }
+
+    @Test
+    void shouldNot_cacheMissingUser() {
+
+        // given
+        var userId = UUID.randomUUID();
+        given(userRepository.findPrincipalById(userId)).willReturn(Optional.empty());
+
+        // when
+        var first = subject.get(userId);
+        var second = subject.get(userId);
+
+        // then
+        assertThat(first).isEmpty();
+        assertThat(second).isEmpty();
+        verify(userRepository, times(2)).findPrincipalById(userId);
+    }
+}
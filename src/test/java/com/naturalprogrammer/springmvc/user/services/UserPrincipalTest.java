@@ -0,0 +1,38 @@
+package com.naturalprogrammer.springmvc.user.services;
+
+import com.naturalprogrammer.springmvc.user.domain.Role;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserPrincipalTest {
+
+    private final UUID id = UUID.randomUUID();
+    private final Instant now = Instant.now();
+
+    @Test
+    void should_deriveRoleMask_fromRoles() {
+
+        // when
+        var principal = new UserPrincipal(id, Set.of(Role.VERIFIED, Role.ADMIN), now, 1);
+
+        // then
+        assertThat(principal.roleMask()).isEqualTo(Role.VERIFIED.mask() | Role.ADMIN.mask());
+        assertThat(Role.isAdmin(principal.roleMask())).isTrue();
+    }
+
+    @Test
+    void shouldNot_acceptRoleMask_notMatchingRoles() {
+
+        // when, then
+        assertThatThrownBy(() -> new UserPrincipal(id, Set.of(Role.VERIFIED), now, 1, Role.ADMIN.mask()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(new UserPrincipal(id, Set.of(Role.VERIFIED), now, 1, Role.VERIFIED.mask()))
+                .isEqualTo(new UserPrincipal(id, Set.of(Role.VERIFIED), now, 1));
+    }
+}
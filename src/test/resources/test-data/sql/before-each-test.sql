@@ -1 +1,2 @@
-DELETE FROM usr;
\ No newline at end of file
+DELETE FROM usr;
+DELETE FROM mail_outbox;